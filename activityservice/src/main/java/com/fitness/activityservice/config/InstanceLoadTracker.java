@@ -0,0 +1,147 @@
+package com.fitness.activityservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-instance load seen by this process: requests in flight and a peak-sensitive moving average of
+ * latency. Fed by the load balancer lifecycle callbacks of the load-balanced WebClients and read by
+ * {@link PeakEwmaLoadBalancer} to price each instance.
+ */
+@Component
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final MeterRegistry meterRegistry;
+    private final double decayNanos;
+    private final long initialRttNanos;
+    private final long failurePenaltyNanos;
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public InstanceLoadTracker(MeterRegistry meterRegistry,
+                               @Value("${loadbalancer.peak-ewma.decay-time:10s}") Duration decayTime,
+                               @Value("${loadbalancer.peak-ewma.initial-rtt:100ms}") Duration initialRtt,
+                               @Value("${loadbalancer.peak-ewma.failure-penalty:1s}") Duration failurePenalty) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = decayTime.toNanos();
+        this.initialRttNanos = initialRtt.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    /**
+     * Expected cost of sending one more request: latency estimate scaled by the queue it would join.
+     */
+    public double cost(ServiceInstance instance) {
+        InstanceLoad load = load(instance);
+        return load.latency(System.nanoTime()) * (load.inFlight.get() + 1);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        load(lbResponse.getServer()).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceLoad load = load(lbResponse.getServer());
+        load.inFlight.updateAndGet(inFlight -> Math.max(0, inFlight - 1));
+
+        long now = System.nanoTime();
+        Object context = completionContext.getLoadBalancerRequest() != null
+                ? completionContext.getLoadBalancerRequest().getContext()
+                : null;
+        if (!(context instanceof TimedRequestContext timed) || timed.getRequestStartTime() == 0) {
+            return;
+        }
+        long rtt = now - timed.getRequestStartTime();
+        if (isFailure(completionContext)) {
+            // A fast failure must not make a broken instance look attractive
+            rtt = Math.max(rtt, failurePenaltyNanos);
+        }
+        load.observe(rtt, now);
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData responseData
+                && responseData.getHttpStatus() != null
+                && responseData.getHttpStatus().is5xxServerError();
+    }
+
+    InstanceLoad load(ServiceInstance instance) {
+        String address = instance.getHost() + ":" + instance.getPort();
+        return loads.computeIfAbsent(instance.getServiceId() + "|" + address, key -> {
+            InstanceLoad load = new InstanceLoad(decayNanos, initialRttNanos, System.nanoTime());
+            String serviceId = String.valueOf(instance.getServiceId());
+            Gauge.builder("loadbalancer.instance.inflight", load.inFlight, AtomicInteger::get)
+                    .tag("service", serviceId)
+                    .tag("instance", address)
+                    .register(meterRegistry);
+            Gauge.builder("loadbalancer.instance.latency", load,
+                            l -> l.latency(System.nanoTime()) / TimeUnit.MILLISECONDS.toNanos(1))
+                    .description("Peak EWMA latency in milliseconds")
+                    .tag("service", serviceId)
+                    .tag("instance", address)
+                    .register(meterRegistry);
+            return load;
+        });
+    }
+
+    /**
+     * Peak EWMA: a slower sample replaces the estimate at once, faster ones pull it down gradually,
+     * and an idle estimate decays towards zero so an instance that was slow gets probed again.
+     */
+    static final class InstanceLoad {
+        final AtomicInteger inFlight = new AtomicInteger();
+        private final double decayNanos;
+        private double ewmaNanos;
+        private long stampNanos;
+
+        InstanceLoad(double decayNanos, long initialRttNanos, long now) {
+            this.decayNanos = decayNanos;
+            this.ewmaNanos = initialRttNanos;
+            this.stampNanos = now;
+        }
+
+        synchronized void observe(long rttNanos, long now) {
+            double weight = Math.exp(-Math.max(0, now - stampNanos) / decayNanos);
+            ewmaNanos = rttNanos > ewmaNanos ? rttNanos : ewmaNanos * weight + rttNanos * (1 - weight);
+            stampNanos = now;
+        }
+
+        synchronized double latency(long now) {
+            return ewmaNanos * Math.exp(-Math.max(0, now - stampNanos) / decayNanos);
+        }
+    }
+}
@@ -24,6 +24,12 @@ public class RabbitMqConfig {
     @Value("${rabbitmq.routing.key}")
     private String routingKey;
 
+    @Value("${rabbitmq.bulk.queue.name:activity.bulk.queue}")
+    private String bulkQueue;
+
+    @Value("${rabbitmq.bulk.routing.key:activity.bulk.routing.key}")
+    private String bulkRoutingKey;
+
     @Bean
     public Queue activityQueue() {
         return new Queue(queue, true); // durable queue
@@ -39,15 +45,29 @@ public class RabbitMqConfig {
         return BindingBuilder.bind(activityQueue).to(activityExchange).with(routingKey);
     }
 
+    @Bean
+    public Queue activityBulkQueue() {
+        return new Queue(bulkQueue, true);
+    }
+
+    @Bean
+    public Binding activityBulkBinding(Queue activityBulkQueue, DirectExchange activityExchange) {
+        return BindingBuilder.bind(activityBulkQueue).to(activityExchange).with(bulkRoutingKey);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, RabbitPublishMonitor publishMonitor) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        // Unroutable messages come back to the monitor instead of being dropped silently
+        template.setMandatory(true);
+        template.setConfirmCallback(publishMonitor);
+        template.setReturnsCallback(publishMonitor);
         return template;
     }
 }
\ No newline at end of file
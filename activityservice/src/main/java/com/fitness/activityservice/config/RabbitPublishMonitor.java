@@ -0,0 +1,63 @@
+package com.fitness.activityservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives asynchronous publisher confirms and mandatory returns for the activity RabbitTemplate
+ * and turns them into confirm latency, ack/nack and return metrics.
+ */
+@Slf4j
+@Component
+public class RabbitPublishMonitor implements RabbitTemplate.ConfirmCallback, RabbitTemplate.ReturnsCallback {
+
+    private final Timer confirmLatency;
+    private final Counter acks;
+    private final Counter nacks;
+    private final Counter returns;
+
+    public RabbitPublishMonitor(MeterRegistry meterRegistry) {
+        this.confirmLatency = Timer.builder("activity.publish.confirm.latency")
+                .description("Time from publish to broker confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.acks = Counter.builder("activity.publish.confirms")
+                .tag("result", "ack")
+                .register(meterRegistry);
+        this.nacks = Counter.builder("activity.publish.confirms")
+                .tag("result", "nack")
+                .register(meterRegistry);
+        this.returns = Counter.builder("activity.publish.returns")
+                .description("Messages returned as unroutable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void confirm(CorrelationData correlationData, boolean ack, String cause) {
+        if (correlationData instanceof TimedCorrelationData timed) {
+            confirmLatency.record(System.nanoTime() - timed.getSentAtNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (ack) {
+            acks.increment();
+        } else {
+            nacks.increment();
+            log.warn("❌ Broker nacked message {}: {}",
+                    correlationData == null ? "unknown" : correlationData.getId(), cause);
+        }
+    }
+
+    @Override
+    public void returnedMessage(ReturnedMessage returned) {
+        returns.increment();
+        log.error("❌ Message returned as unroutable - Exchange: {}, RoutingKey: {}, Reply: {} {}",
+                returned.getExchange(), returned.getRoutingKey(), returned.getReplyCode(), returned.getReplyText());
+    }
+}
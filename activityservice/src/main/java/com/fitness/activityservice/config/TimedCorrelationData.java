@@ -0,0 +1,19 @@
+package com.fitness.activityservice.config;
+
+import lombok.Getter;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+/**
+ * Correlation data that remembers when the message was handed to the broker, so the confirm
+ * callback can record publish-to-confirm latency.
+ */
+@Getter
+public class TimedCorrelationData extends CorrelationData {
+
+    private final long sentAtNanos;
+
+    public TimedCorrelationData(String id) {
+        super(id);
+        this.sentAtNanos = System.nanoTime();
+    }
+}
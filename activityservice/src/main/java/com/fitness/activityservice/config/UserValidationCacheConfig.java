@@ -0,0 +1,61 @@
+package com.fitness.activityservice.config;
+
+import com.fitness.activityservice.model.UserValidationStatus;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class UserValidationCacheConfig {
+
+    @Value("${activity.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${activity.user-cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${activity.user-cache.negative-ttl:30s}")
+    private Duration negativeTtl;
+
+    @Bean
+    public AsyncCache<String, UserValidationStatus> userValidationCache(MeterRegistry meterRegistry) {
+        AsyncCache<String, UserValidationStatus> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new StatusExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userValidation");
+        return cache;
+    }
+
+    /**
+     * Keeps valid users for the full TTL and negative answers only briefly, so a freshly
+     * registered user is not rejected for long.
+     */
+    private record StatusExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, UserValidationStatus> {
+
+        @Override
+        public long expireAfterCreate(String userId, UserValidationStatus status, long currentTime) {
+            return status.isPositive() ? ttl.toNanos() : negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, UserValidationStatus status, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(userId, status, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, UserValidationStatus status, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,31 +1,97 @@
 package com.fitness.activityservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.activityservice.dto.ActivityPageResponse;
 import com.fitness.activityservice.dto.ActivityRequest;
 import com.fitness.activityservice.dto.ActivityResponse;
+import com.fitness.activityservice.dto.ActivityStatsResponse;
+import com.fitness.activityservice.dto.BatchActivityRequest;
+import com.fitness.activityservice.dto.BatchActivityResponse;
+import com.fitness.activityservice.model.RollupGranularity;
 import com.fitness.activityservice.service.ActivityService;
+import com.fitness.activityservice.service.ActivityStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/activities")
 public class ActivityController {
 
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private ActivityStatsService activityStatsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/track")
-    public ResponseEntity<ActivityResponse> trackActivity(@RequestBody ActivityRequest activityRequest) {
+    public ResponseEntity<ActivityResponse> trackActivity(
+            @RequestBody ActivityRequest activityRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            activityRequest.setIdempotencyKey(idempotencyKey);
+        }
         return ResponseEntity.ok(activityService.trackActivity(activityRequest));
     }
 
+    @PostMapping("/track/batch")
+    public ResponseEntity<BatchActivityResponse> trackActivities(@RequestBody BatchActivityRequest batchRequest) {
+        return ResponseEntity.ok(activityService.trackActivities(batchRequest));
+    }
+
     @GetMapping("/track")
     public ResponseEntity<List<ActivityResponse>> getUserActivities(@RequestHeader("X-User-ID") String userId) {
         return ResponseEntity.ok(activityService.getUserActivities(userId));
     }
 
+    @GetMapping(value = "/track", params = "limit")
+    public ResponseEntity<ActivityPageResponse> getUserActivitiesPage(@RequestHeader("X-User-ID") String userId,
+                                                                      @RequestParam int limit,
+                                                                      @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(activityService.getUserActivitiesPage(userId, cursor, limit));
+    }
+
+    @GetMapping(value = "/track",
+            headers = HttpHeaders.ACCEPT + "=" + MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserActivities(@RequestHeader("X-User-ID") String userId) {
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<ActivityResponse> activities = activityService.streamUserActivities(userId)) {
+                Iterator<ActivityResponse> iterator = activities.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ActivityStatsResponse> getActivityStats(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity) {
+        return ResponseEntity.ok(activityStatsService.getStats(userId, from, to, granularity));
+    }
+
     @GetMapping("/{activityId}")
     public ResponseEntity<ActivityResponse> getActivity(@PathVariable String activityId) {
         return ResponseEntity.ok(activityService.getActivity(activityId));
@@ -0,0 +1,54 @@
+package com.fitness.activityservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.activityservice.dto.SamplePoint;
+import com.fitness.activityservice.dto.SampleUploadResponse;
+import com.fitness.activityservice.model.SampleMetric;
+import com.fitness.activityservice.service.ActivitySampleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/activities/{activityId}/samples")
+public class ActivitySampleController {
+
+    private final ActivitySampleService activitySampleService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = "/{metric}",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<SampleUploadResponse> uploadSamples(@PathVariable String activityId,
+                                                              @PathVariable SampleMetric metric,
+                                                              InputStream samples) {
+        return ResponseEntity.ok(activitySampleService.uploadSamples(activityId, metric, samples));
+    }
+
+    @GetMapping(value = "/{metric}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> readSamples(@PathVariable String activityId,
+                                                             @PathVariable SampleMetric metric,
+                                                             @RequestParam(required = false) Long from,
+                                                             @RequestParam(required = false) Long to) {
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<SamplePoint> points = activitySampleService.readSamples(activityId, metric, from, to)) {
+                Iterator<SamplePoint> iterator = points.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
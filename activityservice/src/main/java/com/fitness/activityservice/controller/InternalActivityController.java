@@ -0,0 +1,29 @@
+package com.fitness.activityservice.controller;
+
+import com.fitness.activityservice.dto.ActivityPageResponse;
+import com.fitness.activityservice.service.ActivityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Service-to-service endpoints. They sit outside /api so the gateway does not route them.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/internal/activities")
+public class InternalActivityController {
+
+    private final ActivityService activityService;
+
+    @GetMapping("/scan")
+    public ResponseEntity<ActivityPageResponse> scanActivities(@RequestParam(required = false) String after,
+                                                               @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(activityService.scanActivities(after, limit));
+    }
+}
@@ -0,0 +1,26 @@
+package com.fitness.activityservice.controller;
+
+import com.fitness.activityservice.dto.LeaderboardResponse;
+import com.fitness.activityservice.model.ActivityType;
+import com.fitness.activityservice.model.RollupGranularity;
+import com.fitness.activityservice.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/activities/leaderboards")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping("/{type}")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(@PathVariable ActivityType type,
+                                                              @RequestParam(defaultValue = "WEEK") RollupGranularity window,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(type, window, limit));
+    }
+}
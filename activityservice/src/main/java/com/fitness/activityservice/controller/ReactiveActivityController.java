@@ -0,0 +1,42 @@
+package com.fitness.activityservice.controller;
+
+import com.fitness.activityservice.dto.ActivityRequest;
+import com.fitness.activityservice.dto.ActivityResponse;
+import com.fitness.activityservice.service.ReactiveActivityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking tracking endpoints. They run on the WebFlux stack only when the service starts with the
+ * {@code reactive} profile; in the default servlet mode Spring MVC completes them asynchronously.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/activities/reactive")
+public class ReactiveActivityController {
+
+    private final ReactiveActivityService reactiveActivityService;
+
+    @PostMapping("/track")
+    public Mono<ActivityResponse> trackActivity(
+            @RequestBody ActivityRequest activityRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            activityRequest.setIdempotencyKey(idempotencyKey);
+        }
+        return reactiveActivityService.trackActivity(activityRequest);
+    }
+
+    @GetMapping(value = "/track", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ActivityResponse> getUserActivities(@RequestHeader("X-User-ID") String userId) {
+        return reactiveActivityService.getUserActivities(userId);
+    }
+
+    @GetMapping("/{activityId}")
+    public Mono<ActivityResponse> getActivity(@PathVariable String activityId) {
+        return reactiveActivityService.getActivity(activityId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.fitness.activityservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ActivityPageResponse {
+    private List<ActivityResponse> activities;
+    private String nextCursor;
+    private boolean hasMore;
+}
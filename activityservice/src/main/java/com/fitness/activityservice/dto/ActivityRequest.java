@@ -14,4 +14,5 @@ public class ActivityRequest {
     private Integer caloriesBurned;
     private LocalDateTime startTime;
     private Map<String, Object> additionalMetrics;
+    private String idempotencyKey;
 }
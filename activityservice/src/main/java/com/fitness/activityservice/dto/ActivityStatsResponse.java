@@ -0,0 +1,19 @@
+package com.fitness.activityservice.dto;
+
+import com.fitness.activityservice.model.RollupGranularity;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class ActivityStatsResponse {
+    private String userId;
+    private RollupGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private long totalCount;
+    private long totalDuration;
+    private long totalCalories;
+    private List<StatsBucket> buckets;
+}
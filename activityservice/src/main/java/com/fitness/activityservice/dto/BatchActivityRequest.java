@@ -0,0 +1,11 @@
+package com.fitness.activityservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchActivityRequest {
+    private String userId;
+    private List<ActivityRequest> activities;
+}
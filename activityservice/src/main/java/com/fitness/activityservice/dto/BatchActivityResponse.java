@@ -0,0 +1,13 @@
+package com.fitness.activityservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchActivityResponse {
+    private String userId;
+    private int accepted;
+    private int rejected;
+    private List<BatchItemResult> results;
+}
@@ -0,0 +1,23 @@
+package com.fitness.activityservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private boolean success;
+    private ActivityResponse activity;
+    private String error;
+
+    public static BatchItemResult success(int index, ActivityResponse activity) {
+        return new BatchItemResult(index, true, activity, null);
+    }
+
+    public static BatchItemResult failure(int index, String error) {
+        return new BatchItemResult(index, false, null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.fitness.activityservice.dto;
+
+import com.fitness.activityservice.model.ActivityType;
+import com.fitness.activityservice.model.RollupGranularity;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class LeaderboardResponse {
+    private ActivityType type;
+    private RollupGranularity window;
+    private LocalDate windowStart;
+    private List<LeaderboardEntry> entries;
+}
@@ -0,0 +1,13 @@
+package com.fitness.activityservice.dto;
+
+import com.fitness.activityservice.model.SampleMetric;
+import lombok.Data;
+
+@Data
+public class SampleUploadResponse {
+    private String activityId;
+    private SampleMetric metric;
+    private long samples;
+    private int chunks;
+    private long encodedBytes;
+}
@@ -0,0 +1,16 @@
+package com.fitness.activityservice.dto;
+
+import com.fitness.activityservice.model.ActivityRollup;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+public class StatsBucket {
+    private LocalDate bucketStart;
+    private long count;
+    private long totalDuration;
+    private long totalCalories;
+    private Map<String, ActivityRollup.TypeTotals> byType;
+}
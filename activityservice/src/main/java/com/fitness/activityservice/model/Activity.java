@@ -1,5 +1,6 @@
 package com.fitness.activityservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,13 +9,22 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Map;
 
 @Document(collection = "activities")
+@CompoundIndex(name = "user_start_time_idx", def = "{'userId': 1, 'startTime': -1, '_id': -1}")
+@CompoundIndex(name = "outbox_pending_idx", def = "{'publishStatus': 1, '_id': 1}",
+        partialFilter = "{'publishStatus': 'PENDING'}")
+@CompoundIndex(name = "outbox_in_flight_idx", def = "{'publishStatus': 1, 'publishLeaseUntil': 1}",
+        partialFilter = "{'publishStatus': 'IN_FLIGHT'}")
+@CompoundIndex(name = "user_idempotency_key_idx", def = "{'userId': 1, 'idempotencyKey': 1}", unique = true,
+        partialFilter = "{'idempotencyKey': {$exists: true}}")
 @Data
 @Builder
 @AllArgsConstructor
@@ -43,6 +53,9 @@ public class Activity {
     @JsonProperty("additionalMetrics")
     private Map<String, Object> additionalMetrics;
 
+    @JsonIgnore
+    private String idempotencyKey;
+
     @CreatedDate
     @JsonProperty("createdAt")
     private LocalDateTime createdAt;
@@ -50,4 +63,34 @@ public class Activity {
     @LastModifiedDate
     @JsonProperty("updatedAt")
     private LocalDateTime updatedAt;
+
+    // Outbox state, written in the same document as the activity so no event is lost between save and publish
+    @JsonIgnore
+    private PublishStatus publishStatus;
+
+    @JsonIgnore
+    private Integer publishAttempts;
+
+    @JsonIgnore
+    private LocalDateTime publishedAt;
+
+    // Relay batch that claimed the activity, and until when the claim holds
+    @JsonIgnore
+    private String publishOwner;
+
+    @JsonIgnore
+    private LocalDateTime publishLeaseUntil;
+
+    @JsonIgnore
+    private ActivityLane lane;
+
+    /**
+     * The day an activity counts towards in rollups and leaderboards.
+     */
+    public LocalDate resolveActivityDate() {
+        if (startTime != null) {
+            return startTime.toLocalDate();
+        }
+        return createdAt != null ? createdAt.toLocalDate() : LocalDate.now();
+    }
 }
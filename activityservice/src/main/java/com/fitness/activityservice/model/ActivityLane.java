@@ -0,0 +1,10 @@
+package com.fitness.activityservice.model;
+
+/**
+ * Queue an activity is relayed to for AI processing. Activities tracked one at a time by a user
+ * waiting in the app go to the live lane; batch imports go to the bulk lane.
+ */
+public enum ActivityLane {
+    LIVE,
+    BULK
+}
@@ -0,0 +1,47 @@
+package com.fitness.activityservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Document(collection = "activity_rollups")
+@CompoundIndex(name = "user_granularity_bucket_idx", def = "{'userId': 1, 'granularity': 1, 'bucketStart': 1}")
+@CompoundIndex(name = "granularity_bucket_idx", def = "{'granularity': 1, 'bucketStart': 1}")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ActivityRollup {
+    @Id
+    private String id;
+    private String userId;
+    private RollupGranularity granularity;
+    private LocalDate bucketStart;
+    private long count;
+    private long totalDuration;
+    private long totalCalories;
+    private Map<String, TypeTotals> byType;
+
+    // Bumped by every increment, so a repair only writes back totals if nothing landed since it read
+    private Long version;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeTotals {
+        private long count;
+        private long duration;
+        private long calories;
+    }
+
+    public static String rollupId(String userId, RollupGranularity granularity, LocalDate bucketStart) {
+        return userId + ":" + granularity + ":" + bucketStart;
+    }
+}
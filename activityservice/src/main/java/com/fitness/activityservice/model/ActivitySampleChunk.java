@@ -0,0 +1,41 @@
+package com.fitness.activityservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "activity_samples")
+@CompoundIndex(name = "activity_metric_offset_idx", def = "{'activityId': 1, 'metric': 1, 'startOffsetMs': 1}")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ActivitySampleChunk {
+    @Id
+    private String id;
+    private String activityId;
+    private SampleMetric metric;
+    private long startOffsetMs;
+    private long endOffsetMs;
+    private int sampleCount;
+    private int scale;
+    private byte[] data;
+
+    // Upload that wrote the chunk. Chunks stay staged (stagedAt set) until their upload completes,
+    // and staged chunks left behind by an aborted upload expire.
+    private String uploadId;
+
+    @Indexed(name = "staged_at_ttl_idx", expireAfter = "1d")
+    private LocalDateTime stagedAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
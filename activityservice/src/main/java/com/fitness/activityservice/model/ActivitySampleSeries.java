@@ -0,0 +1,32 @@
+package com.fitness.activityservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Points an activity's metric at the upload whose chunks form its published series. Readers only see
+ * that upload's chunks, and a new upload replaces the series by swapping the pointer in one write.
+ */
+@Document(collection = "activity_sample_series")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ActivitySampleSeries {
+    @Id
+    private String id;
+    private String activityId;
+    private SampleMetric metric;
+    private String uploadId;
+    private LocalDateTime publishedAt;
+
+    public static String seriesId(String activityId, SampleMetric metric) {
+        return activityId + ":" + metric;
+    }
+}
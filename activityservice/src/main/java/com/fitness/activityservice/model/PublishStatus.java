@@ -0,0 +1,10 @@
+package com.fitness.activityservice.model;
+
+public enum PublishStatus {
+    PENDING,
+    // Claimed by one relay instance until its lease runs out
+    IN_FLIGHT,
+    PUBLISHED,
+    // Gave up after activity.outbox.max-attempts; left for inspection instead of retried forever
+    FAILED
+}
@@ -0,0 +1,18 @@
+package com.fitness.activityservice.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum RollupGranularity {
+    DAY,
+    WEEK;
+
+    public LocalDate bucketStart(LocalDate date) {
+        return this == WEEK ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+    }
+
+    public LocalDate nextBucketStart(LocalDate bucketStart) {
+        return this == WEEK ? bucketStart.plusWeeks(1) : bucketStart.plusDays(1);
+    }
+}
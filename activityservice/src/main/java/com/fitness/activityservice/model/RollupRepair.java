@@ -0,0 +1,32 @@
+package com.fitness.activityservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A user's day whose rollup increments failed. The buckets covering it are rebuilt from the
+ * activities themselves, which also undoes any increments of the failed batch that did land.
+ */
+@Document(collection = "rollup_repairs")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupRepair {
+    @Id
+    private String id;
+    private String userId;
+    private LocalDate activityDate;
+    private LocalDateTime requestedAt;
+
+    public static String repairId(String userId, LocalDate activityDate) {
+        return userId + ":" + activityDate;
+    }
+}
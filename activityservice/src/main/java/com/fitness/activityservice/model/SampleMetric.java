@@ -0,0 +1,23 @@
+package com.fitness.activityservice.model;
+
+import lombok.Getter;
+
+/**
+ * Sensor series that can be attached to an activity. Values are stored as fixed-point longs,
+ * multiplied by the scale, so fractional metrics delta-encode as well as integer ones.
+ */
+@Getter
+public enum SampleMetric {
+    HEART_RATE(1),
+    CADENCE(1),
+    PACE(100),
+    SPEED(100),
+    POWER(1),
+    ELEVATION(10);
+
+    private final int scale;
+
+    SampleMetric(int scale) {
+        this.scale = scale;
+    }
+}
@@ -0,0 +1,12 @@
+package com.fitness.activityservice.model;
+
+public enum UserValidationStatus {
+    VALID,
+    INVALID,
+    NOT_FOUND,
+    BAD_REQUEST;
+
+    public boolean isPositive() {
+        return this == VALID;
+    }
+}
@@ -1,13 +1,21 @@
 package com.fitness.activityservice.repository;
 
 import com.fitness.activityservice.model.Activity;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityRepository extends MongoRepository<Activity, String> {
 
     List<Activity> findByUserId(String userId);
+
+    Optional<Activity> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+
+    @Meta(cursorBatchSize = 500)
+    Stream<Activity> streamByUserIdOrderByStartTimeDescActivityIdDesc(String userId);
 }
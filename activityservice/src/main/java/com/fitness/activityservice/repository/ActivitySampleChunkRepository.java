@@ -0,0 +1,19 @@
+package com.fitness.activityservice.repository;
+
+import com.fitness.activityservice.model.ActivitySampleChunk;
+import com.fitness.activityservice.model.SampleMetric;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface ActivitySampleChunkRepository extends MongoRepository<ActivitySampleChunk, String> {
+
+    // Only the published upload's chunks form the series; a null uploadId matches series stored before uploads were tracked
+    @Query("{ 'activityId': ?0, 'metric': ?1, 'uploadId': ?2, 'endOffsetMs': { $gte: ?3 }, 'startOffsetMs': { $lte: ?4 }, 'stagedAt': null }")
+    Stream<ActivitySampleChunk> streamOverlapping(String activityId, SampleMetric metric, String uploadId,
+                                                  long fromMs, long toMs, Sort sort);
+}
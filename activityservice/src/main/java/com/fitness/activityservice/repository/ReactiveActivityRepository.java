@@ -0,0 +1,15 @@
+package com.fitness.activityservice.repository;
+
+import com.fitness.activityservice.model.Activity;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveActivityRepository extends ReactiveMongoRepository<Activity, String> {
+
+    Flux<Activity> findByUserIdOrderByStartTimeDescActivityIdDesc(String userId);
+
+    Mono<Activity> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+}
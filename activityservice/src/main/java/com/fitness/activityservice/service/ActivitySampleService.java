@@ -0,0 +1,14 @@
+package com.fitness.activityservice.service;
+
+import com.fitness.activityservice.dto.SamplePoint;
+import com.fitness.activityservice.dto.SampleUploadResponse;
+import com.fitness.activityservice.model.SampleMetric;
+
+import java.io.InputStream;
+import java.util.stream.Stream;
+
+public interface ActivitySampleService {
+    SampleUploadResponse uploadSamples(String activityId, SampleMetric metric, InputStream samples);
+
+    Stream<SamplePoint> readSamples(String activityId, SampleMetric metric, Long fromMs, Long toMs);
+}
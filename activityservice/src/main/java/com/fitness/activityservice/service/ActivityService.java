@@ -1,16 +1,32 @@
 package com.fitness.activityservice.service;
 
+import com.fitness.activityservice.dto.ActivityPageResponse;
 import com.fitness.activityservice.dto.ActivityRequest;
 import com.fitness.activityservice.dto.ActivityResponse;
+import com.fitness.activityservice.dto.BatchActivityRequest;
+import com.fitness.activityservice.dto.BatchActivityResponse;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ActivityService {
     ActivityResponse trackActivity(ActivityRequest activityRequest);
 
+    BatchActivityResponse trackActivities(BatchActivityRequest batchRequest);
+
     List<ActivityResponse> getUserActivities(String userId);
 
+    ActivityPageResponse getUserActivitiesPage(String userId, String cursor, int limit);
+
+    Stream<ActivityResponse> streamUserActivities(String userId);
+
     ActivityResponse getActivity(String activityId);
+
+    /**
+     * Pages through all activities in _id order, for jobs that reprocess the whole collection.
+     * {@code after} is the last activity id of the previous page.
+     */
+    ActivityPageResponse scanActivities(String after, int limit);
 }
 
 
@@ -0,0 +1,21 @@
+package com.fitness.activityservice.service;
+
+import com.fitness.activityservice.dto.ActivityStatsResponse;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.RollupGranularity;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ActivityStatsService {
+    void record(Activity activity);
+
+    void recordAll(List<Activity> activities);
+
+    Mono<Void> recordReactive(Activity activity);
+
+    void repairRollups();
+
+    ActivityStatsResponse getStats(String userId, LocalDate from, LocalDate to, RollupGranularity granularity);
+}
@@ -0,0 +1,42 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.dto.ActivityRequest;
+import com.fitness.activityservice.dto.ActivityResponse;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityLane;
+import com.fitness.activityservice.model.PublishStatus;
+
+final class ActivityMapper {
+
+    private ActivityMapper() {
+    }
+
+    static Activity toEntity(ActivityRequest activityRequest, String userId) {
+        return Activity.builder()
+                .userId(userId)
+                .type(activityRequest.getType())
+                .duration(activityRequest.getDuration())
+                .caloriesBurned(activityRequest.getCaloriesBurned())
+                .startTime(activityRequest.getStartTime())
+                .additionalMetrics(activityRequest.getAdditionalMetrics())
+                .idempotencyKey(activityRequest.getIdempotencyKey())
+                .lane(ActivityLane.LIVE)
+                .publishStatus(PublishStatus.PENDING)
+                .publishAttempts(0)
+                .build();
+    }
+
+    static ActivityResponse toResponse(Activity savedActivity) {
+        ActivityResponse response = new ActivityResponse();
+        response.setActivityId(savedActivity.getActivityId());
+        response.setUserId(savedActivity.getUserId());
+        response.setType(savedActivity.getType());
+        response.setDuration(savedActivity.getDuration());
+        response.setCaloriesBurned(savedActivity.getCaloriesBurned());
+        response.setStartTime(savedActivity.getStartTime());
+        response.setAdditionalMetrics(savedActivity.getAdditionalMetrics());
+        response.setCreatedAt(savedActivity.getCreatedAt());
+        response.setUpdatedAt(savedActivity.getUpdatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,225 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.config.TimedCorrelationData;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityLane;
+import com.fitness.activityservice.model.PublishStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains activities whose outbox state is still PENDING to the activity exchange, routed to the live
+ * or bulk queue by their lane. Each batch is first claimed (IN_FLIGHT with a lease) so relays on
+ * several instances split the backlog instead of all publishing it, then published before waiting
+ * on any confirm. Only broker-acknowledged activities are marked PUBLISHED, which is the checkpoint
+ * the relay resumes from after a restart or broker outage; an activity that keeps failing is parked
+ * as FAILED after activity.outbox.max-attempts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityOutboxRelay {
+
+    private final MongoTemplate mongoTemplate;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${rabbitmq.exchange.name}")
+    private String exchange;
+
+    @Value("${rabbitmq.routing.key}")
+    private String routingKey;
+
+    @Value("${rabbitmq.bulk.routing.key:activity.bulk.routing.key}")
+    private String bulkRoutingKey;
+
+    @Value("${activity.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${activity.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    // Must outlast a batch's publish and confirm wait, or another instance reclaims it mid-flight
+    @Value("${activity.outbox.lease:30s}")
+    private Duration lease;
+
+    @Value("${activity.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${activity.outbox.poll-interval-ms:500}")
+    public void relayPendingActivities() {
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == batchSize);
+    }
+
+    int relayBatch() {
+        List<Activity> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        String claim = batch.get(0).getPublishOwner();
+
+        List<CorrelationData> confirmations = new ArrayList<>(batch.size());
+        Set<String> rejected = new HashSet<>();
+        for (Activity activity : batch) {
+            CorrelationData correlationData = new TimedCorrelationData(activity.getActivityId());
+            try {
+                rabbitTemplate.convertAndSend(exchange, routingKeyFor(activity), activity, correlationData);
+                confirmations.add(correlationData);
+            } catch (AmqpConnectException e) {
+                log.error("❌ AMQP Exception - Outbox relay stopped after {} of {} activities: {}",
+                        confirmations.size(), batch.size(), e.getMessage());
+                break;
+            } catch (AmqpException e) {
+                // Specific to this activity (e.g. it cannot be converted); the rest of the batch still goes out
+                log.error("❌ Outbox relay could not publish activity {}: {}", activity.getActivityId(), e.getMessage());
+                rejected.add(activity.getActivityId());
+            }
+        }
+
+        Set<String> acknowledged = awaitConfirms(confirmations);
+        // Sent but not confirmed, or refused outright: these count as a failed attempt
+        List<String> failed = new ArrayList<>(rejected);
+        confirmations.stream()
+                .map(CorrelationData::getId)
+                .filter(activityId -> !acknowledged.contains(activityId))
+                .forEach(failed::add);
+
+        if (!acknowledged.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    claimed(claim, acknowledged),
+                    new Update().set("publishStatus", PublishStatus.PUBLISHED).set("publishedAt", LocalDateTime.now())
+                            .unset("publishOwner").unset("publishLeaseUntil"),
+                    Activity.class);
+        }
+        if (!failed.isEmpty()) {
+            Query exhausted = claimed(claim, failed)
+                    .addCriteria(Criteria.where("publishAttempts").gte(maxAttempts - 1));
+            long parked = mongoTemplate.updateMulti(exhausted,
+                    release(PublishStatus.FAILED).inc("publishAttempts", 1), Activity.class).getModifiedCount();
+            if (parked > 0) {
+                log.error("❌ Outbox relay parked {} activities as FAILED after {} attempts", parked, maxAttempts);
+            }
+            mongoTemplate.updateMulti(claimed(claim, failed),
+                    release(PublishStatus.PENDING).inc("publishAttempts", 1), Activity.class);
+        }
+        if (acknowledged.size() + failed.size() < batch.size()) {
+            // Never attempted because the broker went away: released without using up an attempt
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("publishOwner").is(claim)),
+                    release(PublishStatus.PENDING),
+                    Activity.class);
+        }
+        if (acknowledged.size() < batch.size()) {
+            log.warn("Outbox relay left {} activities pending for the next attempt", batch.size() - acknowledged.size());
+        }
+
+        log.info("✅ Outbox relay published {} of {} activities to RabbitMQ", acknowledged.size(), batch.size());
+        return acknowledged.size();
+    }
+
+    /**
+     * Claims up to a batch of PENDING activities, plus IN_FLIGHT ones whose claim lapsed (the relay
+     * that held them died), by stamping them with a fresh claim id. Only the rows that carry the
+     * claim afterwards are returned, so concurrent relays on other instances never publish the same
+     * activity in the same round.
+     */
+    List<Activity> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        Query candidates = Query.query(claimable(now))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, Activity.class).stream()
+                .map(Activity::getActivityId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String claim = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).andOperator(claimable(now))),
+                new Update().set("publishStatus", PublishStatus.IN_FLIGHT)
+                        .set("publishOwner", claim)
+                        .set("publishLeaseUntil", now.plus(lease)),
+                Activity.class);
+        return mongoTemplate.find(
+                Query.query(Criteria.where("publishOwner").is(claim)).with(Sort.by(Sort.Direction.ASC, "_id")),
+                Activity.class);
+    }
+
+    private static Criteria claimable(LocalDateTime now) {
+        return new Criteria().orOperator(
+                Criteria.where("publishStatus").is(PublishStatus.PENDING),
+                Criteria.where("publishStatus").is(PublishStatus.IN_FLIGHT).and("publishLeaseUntil").lt(now));
+    }
+
+    private static Query claimed(String claim, Collection<String> activityIds) {
+        return Query.query(Criteria.where("_id").in(activityIds).and("publishOwner").is(claim));
+    }
+
+    private static Update release(PublishStatus status) {
+        return new Update().set("publishStatus", status).unset("publishOwner").unset("publishLeaseUntil");
+    }
+
+    private String routingKeyFor(Activity activity) {
+        // Activities written before lanes existed have no lane and are treated as live
+        return activity.getLane() == ActivityLane.BULK ? bulkRoutingKey : routingKey;
+    }
+
+    private Set<String> awaitConfirms(List<CorrelationData> confirmations) {
+        Set<String> acknowledged = new HashSet<>();
+        if (!rabbitTemplate.getConnectionFactory().isPublisherConfirms()) {
+            // Without publisher confirms a successful send is the strongest signal available
+            confirmations.forEach(correlationData -> acknowledged.add(correlationData.getId()));
+            return acknowledged;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (CorrelationData correlationData : confirmations) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm = correlationData.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+                if (confirm.isAck() && correlationData.getReturned() == null) {
+                    acknowledged.add(correlationData.getId());
+                } else {
+                    log.warn("Broker did not accept activity {}: {}", correlationData.getId(), confirm.getReason());
+                }
+            } catch (TimeoutException e) {
+                log.warn("Timed out waiting for publisher confirm of activity {}", correlationData.getId());
+            } catch (ExecutionException e) {
+                log.warn("Publisher confirm failed for activity {}: {}", correlationData.getId(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return acknowledged;
+    }
+}
@@ -0,0 +1,221 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.activityservice.dto.SamplePoint;
+import com.fitness.activityservice.dto.SampleUploadResponse;
+import com.fitness.activityservice.model.ActivitySampleChunk;
+import com.fitness.activityservice.model.ActivitySampleSeries;
+import com.fitness.activityservice.model.SampleMetric;
+import com.fitness.activityservice.repository.ActivityRepository;
+import com.fitness.activityservice.repository.ActivitySampleChunkRepository;
+import com.fitness.activityservice.service.ActivitySampleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivitySampleServiceImpl implements ActivitySampleService {
+
+    private final ActivityRepository activityRepository;
+    private final ActivitySampleChunkRepository activitySampleChunkRepository;
+    private final ObjectMapper objectMapper;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${activity.samples.chunk-size:600}")
+    private int chunkSize;
+
+    @Value("${activity.samples.max-samples:200000}")
+    private long maxSamples;
+
+    @Override
+    public SampleUploadResponse uploadSamples(String activityId, SampleMetric metric, InputStream samples) {
+        log.info("Uploading {} samples for activity: {}", metric, activityId);
+        if (!activityRepository.existsById(activityId)) {
+            throw new RuntimeException("Activity not found with ID : " + activityId);
+        }
+
+        SampleUploadResponse response = new SampleUploadResponse();
+        response.setActivityId(activityId);
+        response.setMetric(metric);
+
+        // Chunks are staged under this upload and only replace the stored series once the whole
+        // stream has parsed, so a rejected or interrupted upload never leaves a partial series behind
+        String uploadId = UUID.randomUUID().toString();
+        try {
+            parseAndStage(activityId, metric, samples, uploadId, response);
+        } catch (RuntimeException e) {
+            discardStaged(uploadId);
+            throw e;
+        }
+        commit(activityId, metric, uploadId);
+
+        log.info("Stored {} {} samples in {} chunks ({} bytes) for activity: {}",
+                response.getSamples(), metric, response.getChunks(), response.getEncodedBytes(), activityId);
+        return response;
+    }
+
+    private void parseAndStage(String activityId, SampleMetric metric, InputStream samples, String uploadId,
+                               SampleUploadResponse response) {
+        // Only one chunk is buffered at a time, so memory stays flat however long the upload is
+        long[] offsets = new long[chunkSize];
+        long[] values = new long[chunkSize];
+        int count = 0;
+        long lastOffset = Long.MIN_VALUE;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(samples)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new RuntimeException("Invalid sample at position " + response.getSamples());
+                }
+                Long offset = null;
+                Double value = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("t".equals(field)) {
+                        offset = parser.getLongValue();
+                    } else if ("v".equals(field)) {
+                        value = parser.getDoubleValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (offset == null || value == null) {
+                    throw new RuntimeException("Sample at position " + response.getSamples() + " requires t and v");
+                }
+                if (offset <= lastOffset) {
+                    throw new RuntimeException("Samples must be in increasing time order, got t=" + offset);
+                }
+                if (response.getSamples() >= maxSamples) {
+                    throw new RuntimeException("Sample upload exceeds limit of " + maxSamples);
+                }
+
+                offsets[count] = offset;
+                values[count] = Math.round(value * metric.getScale());
+                count++;
+                lastOffset = offset;
+                response.setSamples(response.getSamples() + 1);
+
+                if (count == chunkSize) {
+                    saveChunk(activityId, metric, uploadId, offsets, values, count, response);
+                    count = 0;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read samples : " + e.getMessage());
+        }
+        if (count > 0) {
+            saveChunk(activityId, metric, uploadId, offsets, values, count, response);
+        }
+    }
+
+    /**
+     * Publishes the staged chunks by pointing the series at this upload, then drops only the upload
+     * it replaced. Other uploads still staging are left alone; of two concurrent uploads the one that
+     * commits last is the series, and each removes exactly the upload it took over from.
+     */
+    private void commit(String activityId, SampleMetric metric, String uploadId) {
+        ActivitySampleSeries replaced;
+        try {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("uploadId").is(uploadId)),
+                    new Update().unset("stagedAt"), ActivitySampleChunk.class);
+            replaced = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(ActivitySampleSeries.seriesId(activityId, metric))),
+                    new Update()
+                            .set("activityId", activityId)
+                            .set("metric", metric)
+                            .set("uploadId", uploadId)
+                            .set("publishedAt", LocalDateTime.now()),
+                    FindAndModifyOptions.options().upsert(true),
+                    ActivitySampleSeries.class);
+        } catch (RuntimeException e) {
+            discardStaged(uploadId);
+            throw e;
+        }
+
+        // Series stored before uploads were tracked have no uploadId on their chunks
+        String previousUploadId = replaced != null ? replaced.getUploadId() : null;
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("activityId").is(activityId)
+                    .and("metric").is(metric)
+                    .and("uploadId").is(previousUploadId)
+                    .and("stagedAt").is(null)), ActivitySampleChunk.class);
+        } catch (DataAccessException e) {
+            // Unreachable once the series points elsewhere, so only storage is lost
+            log.warn("Could not remove replaced {} samples of activity {}: {}", metric, activityId, e.getMessage());
+        }
+    }
+
+    private void discardStaged(String uploadId) {
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("uploadId").is(uploadId)), ActivitySampleChunk.class);
+        } catch (DataAccessException e) {
+            // Left to the stagedAt TTL index
+            log.warn("Could not discard staged samples of upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private void saveChunk(String activityId, SampleMetric metric, String uploadId, long[] offsets, long[] values,
+                           int count, SampleUploadResponse response) {
+        byte[] data = SampleChunkCodec.encode(offsets, values, count);
+        activitySampleChunkRepository.save(ActivitySampleChunk.builder()
+                .activityId(activityId)
+                .metric(metric)
+                .startOffsetMs(offsets[0])
+                .endOffsetMs(offsets[count - 1])
+                .sampleCount(count)
+                .scale(metric.getScale())
+                .data(data)
+                .uploadId(uploadId)
+                .stagedAt(LocalDateTime.now())
+                .build());
+        response.setChunks(response.getChunks() + 1);
+        response.setEncodedBytes(response.getEncodedBytes() + data.length);
+    }
+
+    @Override
+    public Stream<SamplePoint> readSamples(String activityId, SampleMetric metric, Long fromMs, Long toMs) {
+        long from = fromMs == null ? Long.MIN_VALUE : fromMs;
+        long to = toMs == null ? Long.MAX_VALUE : toMs;
+        log.info("Reading {} samples for activity: {} in range [{}, {}]", metric, activityId, fromMs, toMs);
+
+        ActivitySampleSeries series = mongoTemplate.findById(
+                ActivitySampleSeries.seriesId(activityId, metric), ActivitySampleSeries.class);
+        String uploadId = series != null ? series.getUploadId() : null;
+
+        // Chunks are fetched through a cursor and decoded one at a time as the caller consumes points
+        return activitySampleChunkRepository
+                .streamOverlapping(activityId, metric, uploadId, from, to, Sort.by(Sort.Direction.ASC, "startOffsetMs"))
+                .flatMap(chunk -> decodeChunk(chunk, from, to));
+    }
+
+    private Stream<SamplePoint> decodeChunk(ActivitySampleChunk chunk, long from, long to) {
+        long[][] decoded = SampleChunkCodec.decode(chunk.getData());
+        long[] offsets = decoded[0];
+        long[] values = decoded[1];
+        double scale = chunk.getScale();
+        return IntStream.range(0, offsets.length)
+                .filter(i -> offsets[i] >= from && offsets[i] <= to)
+                .mapToObj(i -> new SamplePoint(offsets[i], values[i] / scale));
+    }
+}
@@ -1,20 +1,46 @@
 package com.fitness.activityservice.service.Impl;
 
+import com.fitness.activityservice.dto.ActivityPageResponse;
 import com.fitness.activityservice.dto.ActivityRequest;
 import com.fitness.activityservice.dto.ActivityResponse;
+import com.fitness.activityservice.dto.BatchActivityRequest;
+import com.fitness.activityservice.dto.BatchActivityResponse;
+import com.fitness.activityservice.dto.BatchItemResult;
 import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityLane;
 import com.fitness.activityservice.repository.ActivityRepository;
 import com.fitness.activityservice.service.ActivityService;
+import com.fitness.activityservice.service.ActivityStatsService;
+import com.fitness.activityservice.service.LeaderboardService;
 import com.fitness.activityservice.service.UserValidateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,18 +49,37 @@ public class ActivityServiceImpl implements ActivityService {
 
     private final ActivityRepository activityRepository;
     private final UserValidateService userValidateService;
-    private final RabbitTemplate rabbitTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final ActivityStatsService activityStatsService;
+    private final LeaderboardService leaderboardService;
+    private final IdempotencyKeyIndex idempotencyKeyIndex;
 
-    @Value("${rabbitmq.exchange.name}")
-    private String exchange;
+    private static final int DUPLICATE_KEY_ERROR = 11000;
 
-    @Value("${rabbitmq.routing.key}")
-    private String routingKey;
+    @Value("${activity.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${activity.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${activity.scan.max-page-size:1000}")
+    private int maxScanPageSize;
 
     @Override
     public ActivityResponse trackActivity(ActivityRequest activityRequest) {
         log.info("Processing activity tracking request for user: {}", activityRequest.getUserId());
 
+        // A retried request returns the activity it already created
+        String idempotencyKey = activityRequest.getIdempotencyKey();
+        if (idempotencyKey != null && idempotencyKeyIndex.mightContain(activityRequest.getUserId(), idempotencyKey)) {
+            Optional<Activity> existing = activityRepository.findByUserIdAndIdempotencyKey(
+                    activityRequest.getUserId(), idempotencyKey);
+            if (existing.isPresent()) {
+                log.info("Duplicate activity request {} for user: {}", idempotencyKey, activityRequest.getUserId());
+                return ActivityMapper.toResponse(existing.get());
+            }
+        }
+
         // Validate user
         boolean isValidUser = userValidateService.validateUser(activityRequest.getUserId());
         if (!isValidUser) {
@@ -43,41 +88,151 @@ public class ActivityServiceImpl implements ActivityService {
         }
 
         // Build activity entity
-        Activity activity = Activity.builder()
-                .userId(activityRequest.getUserId())
-                .type(activityRequest.getType())
-                .duration(activityRequest.getDuration())
-                .caloriesBurned(activityRequest.getCaloriesBurned())
-                .startTime(activityRequest.getStartTime())
-                .additionalMetrics(activityRequest.getAdditionalMetrics())
-                .build();
-
-        // Save activity to database
-        Activity savedActivity = activityRepository.save(activity);
+        Activity activity = ActivityMapper.toEntity(activityRequest, activityRequest.getUserId());
+
+        // Save activity to database; the unique idempotency index catches retries the filter has not seen
+        Activity savedActivity;
+        try {
+            savedActivity = activityRepository.save(activity);
+        } catch (DuplicateKeyException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            log.info("Duplicate activity request {} for user: {}", idempotencyKey, activityRequest.getUserId());
+            return activityRepository.findByUserIdAndIdempotencyKey(activityRequest.getUserId(), idempotencyKey)
+                    .map(ActivityMapper::toResponse)
+                    .orElseThrow(() -> e);
+        }
         log.info("Activity saved successfully with ID: {}", savedActivity.getActivityId());
+        if (idempotencyKey != null) {
+            idempotencyKeyIndex.put(savedActivity.getUserId(), idempotencyKey);
+        }
 
-        // Publish to RabbitMQ for AI processing
-        publishToRabbitMQ(savedActivity);
+        // Incrementally maintain the per-user daily and weekly rollups and the in-memory leaderboards
+        activityStatsService.record(savedActivity);
+        leaderboardService.record(List.of(savedActivity));
 
-        return mapToResponse(savedActivity);
+        // The outbox relay publishes the activity to RabbitMQ for AI processing
+        return ActivityMapper.toResponse(savedActivity);
     }
 
-    private void publishToRabbitMQ(Activity activity) {
-        try {
-            log.info("Publishing activity to RabbitMQ - Exchange: {}, RoutingKey: {}, ActivityId: {}",
-                    exchange, routingKey, activity.getActivityId());
+    @Override
+    public BatchActivityResponse trackActivities(BatchActivityRequest batchRequest) {
+        String userId = batchRequest.getUserId();
+        List<ActivityRequest> requests = batchRequest.getActivities() == null
+                ? List.of()
+                : batchRequest.getActivities();
+        log.info("Processing batch of {} activities for user: {}", requests.size(), userId);
+
+        if (requests.size() > maxBatchSize) {
+            throw new RuntimeException("Batch size " + requests.size() + " exceeds limit of " + maxBatchSize);
+        }
 
-            rabbitTemplate.convertAndSend(exchange, routingKey, activity);
+        // Validate user once for the whole batch
+        boolean isValidUser = userValidateService.validateUser(userId);
+        if (!isValidUser) {
+            log.error("Invalid user attempted to track activity batch: {}", userId);
+            throw new RuntimeException("Invalid User : " + userId);
+        }
+
+        // Build entities up front; ids and audit dates are assigned here because bulk inserts do not populate them
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Activity> pending = new ArrayList<>();
+        List<Integer> pendingIndexes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < requests.size(); i++) {
+            ActivityRequest request = requests.get(i);
+            String error = validateBatchItem(userId, request);
+            if (error != null) {
+                results[i] = BatchItemResult.failure(i, error);
+                continue;
+            }
+            Activity activity = ActivityMapper.toEntity(request, userId);
+            // Imports must not delay recommendations for users waiting in the app
+            activity.setLane(ActivityLane.BULK);
+            activity.setActivityId(new ObjectId().toHexString());
+            activity.setCreatedAt(now);
+            activity.setUpdatedAt(now);
+            pending.add(activity);
+            pendingIndexes.add(i);
+        }
 
-            log.info("✅ Successfully published activity {} to RabbitMQ", activity.getActivityId());
+        // Persist the whole batch with a single unordered bulk insert
+        Set<Integer> duplicates = new HashSet<>();
+        Map<Integer, String> writeErrors = insertUnordered(pending, duplicates);
 
-        } catch (AmqpException e) {
-            log.error("❌ AMQP Exception - Failed to publish activity {} to RabbitMQ: {}",
-                    activity.getActivityId(), e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("❌ Unexpected error - Failed to publish activity {} to RabbitMQ: {}",
-                    activity.getActivityId(), e.getMessage(), e);
+        List<Activity> savedActivities = new ArrayList<>();
+        for (int position = 0; position < pending.size(); position++) {
+            int index = pendingIndexes.get(position);
+            Activity activity = pending.get(position);
+            String error = writeErrors.get(position);
+            if (duplicates.contains(position) && activity.getIdempotencyKey() != null) {
+                // Retried item: report the activity created by the original request
+                Optional<Activity> existing = activityRepository.findByUserIdAndIdempotencyKey(
+                        userId, activity.getIdempotencyKey());
+                results[index] = existing
+                        .map(original -> BatchItemResult.success(index, ActivityMapper.toResponse(original)))
+                        .orElseGet(() -> BatchItemResult.failure(index, error));
+            } else if (error != null) {
+                results[index] = BatchItemResult.failure(index, error);
+            } else {
+                savedActivities.add(activity);
+                if (activity.getIdempotencyKey() != null) {
+                    idempotencyKeyIndex.put(userId, activity.getIdempotencyKey());
+                }
+                results[index] = BatchItemResult.success(index, ActivityMapper.toResponse(activity));
+            }
         }
+        log.info("Batch saved {} of {} activities for user: {}", savedActivities.size(), requests.size(), userId);
+
+        activityStatsService.recordAll(savedActivities);
+        leaderboardService.record(savedActivities);
+
+        BatchActivityResponse response = new BatchActivityResponse();
+        response.setUserId(userId);
+        response.setAccepted(savedActivities.size());
+        response.setRejected(requests.size() - savedActivities.size());
+        response.setResults(Arrays.asList(results));
+        return response;
+    }
+
+    private String validateBatchItem(String userId, ActivityRequest request) {
+        if (request == null) {
+            return "Activity is required";
+        }
+        if (request.getUserId() != null && !request.getUserId().equals(userId)) {
+            return "Activity user " + request.getUserId() + " does not match batch user " + userId;
+        }
+        if (request.getType() == null) {
+            return "Activity type is required";
+        }
+        return null;
+    }
+
+    private Map<Integer, String> insertUnordered(List<Activity> activities, Set<Integer> duplicates) {
+        Map<Integer, String> writeErrors = new HashMap<>();
+        if (activities.isEmpty()) {
+            return writeErrors;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Activity.class)
+                    .insert(activities)
+                    .execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> {
+                writeErrors.put(error.getIndex(), error.getMessage());
+                if (error.getCode() == DUPLICATE_KEY_ERROR) {
+                    duplicates.add(error.getIndex());
+                }
+            });
+            log.error("Bulk insert finished with {} write errors", writeErrors.size());
+        } catch (DataAccessException e) {
+            log.error("Bulk insert failed for {} activities: {}", activities.size(), e.getMessage(), e);
+            for (int i = 0; i < activities.size(); i++) {
+                writeErrors.put(i, "Failed to save activity");
+            }
+        }
+        return writeErrors;
     }
 
     @Override
@@ -87,35 +242,125 @@ public class ActivityServiceImpl implements ActivityService {
         log.info("Found {} activities for user: {}", activities.size(), userId);
 
         return activities.stream()
-                .map(this::mapToResponse)
+                .map(ActivityMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public ActivityPageResponse getUserActivitiesPage(String userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        log.info("Fetching page of {} activities for user: {}", pageSize, userId);
+
+        // Keyset on (startTime desc, _id desc); activities without a start time sort last
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursor != null && !cursor.isBlank()) {
+            CursorPosition position = decodeCursor(cursor);
+            ObjectId lastId = position.lastId();
+            if (position.startTime() == null) {
+                criteria.and("startTime").is(null).and("_id").lt(lastId);
+            } else {
+                LocalDateTime lastStartTime = position.startTime();
+                criteria.orOperator(
+                        Criteria.where("startTime").lt(lastStartTime),
+                        Criteria.where("startTime").is(lastStartTime).and("_id").lt(lastId),
+                        Criteria.where("startTime").is(null));
+            }
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "startTime").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(pageSize + 1);
+        List<Activity> activities = mongoTemplate.find(query, Activity.class);
+
+        boolean hasMore = activities.size() > pageSize;
+        if (hasMore) {
+            activities = activities.subList(0, pageSize);
+        }
+
+        ActivityPageResponse response = new ActivityPageResponse();
+        response.setActivities(activities.stream()
+                .map(ActivityMapper::toResponse)
+                .collect(Collectors.toList()));
+        response.setHasMore(hasMore);
+        response.setNextCursor(hasMore ? encodeCursor(activities.get(activities.size() - 1)) : null);
+        return response;
+    }
+
+    @Override
+    public ActivityPageResponse scanActivities(String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxScanPageSize));
+        Criteria criteria = new Criteria();
+        if (after != null && !after.isBlank()) {
+            if (!ObjectId.isValid(after)) {
+                throw new RuntimeException("Invalid scan position: " + after);
+            }
+            criteria = Criteria.where("_id").gt(new ObjectId(after));
+        }
+
+        // Keyset on _id only, so every page is an index range scan however deep the job is
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(pageSize + 1);
+        List<Activity> activities = mongoTemplate.find(query, Activity.class);
+
+        boolean hasMore = activities.size() > pageSize;
+        if (hasMore) {
+            activities = activities.subList(0, pageSize);
+        }
+
+        ActivityPageResponse response = new ActivityPageResponse();
+        response.setActivities(activities.stream()
+                .map(ActivityMapper::toResponse)
+                .collect(Collectors.toList()));
+        response.setHasMore(hasMore);
+        response.setNextCursor(activities.isEmpty() ? after : activities.get(activities.size() - 1).getActivityId());
+        return response;
+    }
+
+    @Override
+    public Stream<ActivityResponse> streamUserActivities(String userId) {
+        log.info("Streaming activities for user: {}", userId);
+        return activityRepository.streamByUserIdOrderByStartTimeDescActivityIdDesc(userId)
+                .map(ActivityMapper::toResponse);
+    }
+
+    private String encodeCursor(Activity activity) {
+        String startTime = activity.getStartTime() == null ? "" : activity.getStartTime().toString();
+        String position = startTime + "|" + activity.getActivityId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", -1);
+            if (parts.length != 2 || !ObjectId.isValid(parts[1])) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime startTime = parts[0].isEmpty() ? null : LocalDateTime.parse(parts[0]);
+            return new CursorPosition(startTime, new ObjectId(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor : " + cursor);
+        }
+    }
+
+    /**
+     * Sort key of the last activity on a page; startTime is null for activities recorded without one.
+     */
+    private record CursorPosition(LocalDateTime startTime, ObjectId lastId) {
+    }
+
     @Override
     public ActivityResponse getActivity(String activityId) {
         log.info("Fetching activity with ID: {}", activityId);
         return activityRepository.findById(activityId)
                 .map(activity -> {
                     log.info("Activity found: {}", activityId);
-                    return mapToResponse(activity);
+                    return ActivityMapper.toResponse(activity);
                 })
                 .orElseThrow(() -> {
                     log.error("Activity not found with ID: {}", activityId);
                     return new RuntimeException("Activity not found with ID : " + activityId);
                 });
     }
-
-    private ActivityResponse mapToResponse(Activity savedActivity) {
-        ActivityResponse response = new ActivityResponse();
-        response.setActivityId(savedActivity.getActivityId());
-        response.setUserId(savedActivity.getUserId());
-        response.setType(savedActivity.getType());
-        response.setDuration(savedActivity.getDuration());
-        response.setCaloriesBurned(savedActivity.getCaloriesBurned());
-        response.setStartTime(savedActivity.getStartTime());
-        response.setAdditionalMetrics(savedActivity.getAdditionalMetrics());
-        response.setCreatedAt(savedActivity.getCreatedAt());
-        response.setUpdatedAt(savedActivity.getUpdatedAt());
-        return response;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,311 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.dto.ActivityStatsResponse;
+import com.fitness.activityservice.dto.StatsBucket;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityRollup;
+import com.fitness.activityservice.model.ActivityType;
+import com.fitness.activityservice.model.RollupGranularity;
+import com.fitness.activityservice.model.RollupRepair;
+import com.fitness.activityservice.repository.ActivityRollupRepository;
+import com.fitness.activityservice.service.ActivityStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityStatsServiceImpl implements ActivityStatsService {
+
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final ActivityRollupRepository activityRollupRepository;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Value("${activity.stats.max-range-days:366}")
+    private long maxRangeDays;
+
+    @Value("${activity.stats.repair-batch-size:100}")
+    private int repairBatchSize;
+
+    @Override
+    public void record(Activity activity) {
+        recordAll(List.of(activity));
+    }
+
+    @Override
+    public void recordAll(List<Activity> activities) {
+        if (activities.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class);
+        rollupUpserts(activities).forEach(upsert -> operations.upsert(upsert.getFirst(), upsert.getSecond()));
+        try {
+            operations.execute();
+        } catch (DataAccessException e) {
+            // Rollups are derived data; a failed increment must not fail the tracking request
+            log.error("Failed to update rollups for {} activities, scheduling repair: {}",
+                    activities.size(), e.getMessage(), e);
+            markForRepair(activities);
+        }
+    }
+
+    @Override
+    public Mono<Void> recordReactive(Activity activity) {
+        List<Activity> activities = List.of(activity);
+        return Mono.defer(() -> {
+                    ReactiveBulkOperations operations =
+                            reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class);
+                    rollupUpserts(activities).forEach(upsert -> operations.upsert(upsert.getFirst(), upsert.getSecond()));
+                    return operations.execute();
+                })
+                .then()
+                .onErrorResume(DataAccessException.class, e -> {
+                    log.error("Failed to update rollups for activity {}, scheduling repair: {}",
+                            activity.getActivityId(), e.getMessage());
+                    return Mono.defer(() -> {
+                                ReactiveBulkOperations operations =
+                                        reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RollupRepair.class);
+                                repairUpserts(activities).forEach(upsert -> operations.upsert(upsert.getFirst(), upsert.getSecond()));
+                                return operations.execute();
+                            })
+                            .then()
+                            .onErrorResume(DataAccessException.class, repairError -> {
+                                log.error("❌ Could not schedule rollup repair for activity {}: {}",
+                                        activity.getActivityId(), repairError.getMessage());
+                                return Mono.empty();
+                            });
+                });
+    }
+
+    private void markForRepair(List<Activity> activities) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RollupRepair.class);
+        repairUpserts(activities).forEach(upsert -> operations.upsert(upsert.getFirst(), upsert.getSecond()));
+        try {
+            operations.execute();
+        } catch (DataAccessException e) {
+            log.error("❌ Could not schedule rollup repair for {} activities: {}", activities.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the buckets of every day whose increments failed. The rebuild replaces the bucket with
+     * totals recomputed from the activities, so it is safe to run more than once or on several
+     * instances. A marker is only removed if it was not re-requested while the rebuild ran.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${activity.stats.repair-interval-ms:60000}")
+    public void repairRollups() {
+        List<RollupRepair> repairs;
+        try {
+            repairs = mongoTemplate.find(new Query()
+                    .with(Sort.by(Sort.Direction.ASC, "requestedAt"))
+                    .limit(repairBatchSize), RollupRepair.class);
+        } catch (DataAccessException e) {
+            log.warn("Could not read pending rollup repairs: {}", e.getMessage());
+            return;
+        }
+        for (RollupRepair repair : repairs) {
+            try {
+                for (RollupGranularity granularity : RollupGranularity.values()) {
+                    rebuildBucket(repair.getUserId(), granularity, granularity.bucketStart(repair.getActivityDate()));
+                }
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(repair.getId())
+                        .and("requestedAt").is(repair.getRequestedAt())), RollupRepair.class);
+                log.info("Repaired rollups of user {} for {}", repair.getUserId(), repair.getActivityDate());
+            } catch (DataAccessException e) {
+                log.warn("Rollup repair for user {} on {} failed, will retry: {}",
+                        repair.getUserId(), repair.getActivityDate(), e.getMessage());
+            }
+        }
+    }
+
+    void rebuildBucket(String userId, RollupGranularity granularity, LocalDate bucketStart) {
+        String rollupId = ActivityRollup.rollupId(userId, granularity, bucketStart);
+        for (int attempt = 1; !tryRebuildBucket(userId, granularity, bucketStart, rollupId); attempt++) {
+            if (attempt == REBUILD_ATTEMPTS) {
+                throw new OptimisticLockingFailureException("Rollup " + rollupId + " kept changing during repair");
+            }
+        }
+    }
+
+    /**
+     * Recomputes the bucket and writes it back only if its version is still the one read before the
+     * recompute. An increment landing in between bumps the version, and the write is retried instead
+     * of overwriting it.
+     *
+     * @return false if the bucket changed concurrently
+     */
+    private boolean tryRebuildBucket(String userId, RollupGranularity granularity, LocalDate bucketStart,
+                                     String rollupId) {
+        ActivityRollup current = mongoTemplate.findById(rollupId, ActivityRollup.class);
+        Long seenVersion = current != null ? current.getVersion() : null;
+        // No version: the bucket is missing, or was written before rollups were versioned
+        Criteria version = seenVersion != null
+                ? Criteria.where("version").is(seenVersion)
+                : Criteria.where("version").exists(false);
+        Query unchanged = Query.query(Criteria.where("_id").is(rollupId).andOperator(version));
+
+        LocalDateTime from = bucketStart.atStartOfDay();
+        LocalDateTime to = granularity.nextBucketStart(bucketStart).atStartOfDay();
+        // Same day resolution as Activity.resolveActivityDate: startTime, else createdAt
+        Query query = Query.query(Criteria.where("userId").is(userId).orOperator(
+                Criteria.where("startTime").gte(from).lt(to),
+                Criteria.where("startTime").is(null).and("createdAt").gte(from).lt(to)));
+        query.fields().include("type").include("duration").include("caloriesBurned");
+        List<Activity> activities = mongoTemplate.find(query, Activity.class);
+
+        if (activities.isEmpty()) {
+            return current == null
+                    || mongoTemplate.remove(unchanged, ActivityRollup.class).getDeletedCount() > 0;
+        }
+        long count = 0;
+        long totalDuration = 0;
+        long totalCalories = 0;
+        Map<String, ActivityRollup.TypeTotals> byType = new HashMap<>();
+        for (Activity activity : activities) {
+            String type = activity.getType() == null ? ActivityType.OTHER.name() : activity.getType().name();
+            long duration = activity.getDuration() == null ? 0 : activity.getDuration();
+            long calories = activity.getCaloriesBurned() == null ? 0 : activity.getCaloriesBurned();
+            count++;
+            totalDuration += duration;
+            totalCalories += calories;
+            ActivityRollup.TypeTotals totals = byType.computeIfAbsent(type, t -> new ActivityRollup.TypeTotals());
+            totals.setCount(totals.getCount() + 1);
+            totals.setDuration(totals.getDuration() + duration);
+            totals.setCalories(totals.getCalories() + calories);
+        }
+        Update rebuilt = new Update()
+                .set("userId", userId)
+                .set("granularity", granularity)
+                .set("bucketStart", bucketStart)
+                .set("count", count)
+                .set("totalDuration", totalDuration)
+                .set("totalCalories", totalCalories)
+                .set("byType", byType)
+                .inc("version", 1);
+        try {
+            // If the bucket changed, the filter misses and the upsert collides with the existing _id
+            mongoTemplate.upsert(unchanged, rebuilt, ActivityRollup.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private List<Pair<Query, Update>> rollupUpserts(List<Activity> activities) {
+        List<Pair<Query, Update>> upserts = new ArrayList<>();
+        for (Activity activity : activities) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                upserts.add(rollupUpsert(activity, granularity));
+            }
+        }
+        return upserts;
+    }
+
+    private Pair<Query, Update> rollupUpsert(Activity activity, RollupGranularity granularity) {
+        LocalDate bucketStart = granularity.bucketStart(activity.resolveActivityDate());
+        String type = activity.getType() == null ? ActivityType.OTHER.name() : activity.getType().name();
+        long duration = activity.getDuration() == null ? 0 : activity.getDuration();
+        long calories = activity.getCaloriesBurned() == null ? 0 : activity.getCaloriesBurned();
+
+        Query query = Query.query(Criteria.where("_id")
+                .is(ActivityRollup.rollupId(activity.getUserId(), granularity, bucketStart)));
+        Update update = new Update()
+                .setOnInsert("userId", activity.getUserId())
+                .setOnInsert("granularity", granularity)
+                .setOnInsert("bucketStart", bucketStart)
+                .inc("count", 1)
+                .inc("totalDuration", duration)
+                .inc("totalCalories", calories)
+                .inc("byType." + type + ".count", 1)
+                .inc("byType." + type + ".duration", duration)
+                .inc("byType." + type + ".calories", calories)
+                .inc("version", 1);
+        return Pair.of(query, update);
+    }
+
+    private List<Pair<Query, Update>> repairUpserts(List<Activity> activities) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Pair<Query, Update>> upserts = new LinkedHashMap<>();
+        for (Activity activity : activities) {
+            LocalDate activityDate = activity.resolveActivityDate();
+            String repairId = RollupRepair.repairId(activity.getUserId(), activityDate);
+            upserts.computeIfAbsent(repairId, id -> Pair.of(
+                    Query.query(Criteria.where("_id").is(id)),
+                    new Update()
+                            .setOnInsert("userId", activity.getUserId())
+                            .setOnInsert("activityDate", activityDate)
+                            .set("requestedAt", now)));
+        }
+        return new ArrayList<>(upserts.values());
+    }
+
+    @Override
+    public ActivityStatsResponse getStats(String userId, LocalDate from, LocalDate to, RollupGranularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Invalid range : from " + start + " is after to " + end);
+        }
+        if (ChronoUnit.DAYS.between(start, end) > maxRangeDays) {
+            throw new RuntimeException("Range exceeds limit of " + maxRangeDays + " days");
+        }
+        log.info("Fetching {} stats for user: {} from {} to {}", granularity, userId, start, end);
+
+        List<ActivityRollup> rollups = activityRollupRepository.findBuckets(
+                userId, granularity, granularity.bucketStart(start), end, Sort.by(Sort.Direction.ASC, "bucketStart"));
+
+        ActivityStatsResponse response = new ActivityStatsResponse();
+        response.setUserId(userId);
+        response.setGranularity(granularity);
+        response.setFrom(start);
+        response.setTo(end);
+        response.setBuckets(rollups.stream()
+                .map(this::mapToBucket)
+                .collect(Collectors.toList()));
+        for (ActivityRollup rollup : rollups) {
+            response.setTotalCount(response.getTotalCount() + rollup.getCount());
+            response.setTotalDuration(response.getTotalDuration() + rollup.getTotalDuration());
+            response.setTotalCalories(response.getTotalCalories() + rollup.getTotalCalories());
+        }
+        return response;
+    }
+
+    private StatsBucket mapToBucket(ActivityRollup rollup) {
+        StatsBucket bucket = new StatsBucket();
+        bucket.setBucketStart(rollup.getBucketStart());
+        bucket.setCount(rollup.getCount());
+        bucket.setTotalDuration(rollup.getTotalDuration());
+        bucket.setTotalCalories(rollup.getTotalCalories());
+        bucket.setByType(rollup.getByType());
+        return bucket;
+    }
+}
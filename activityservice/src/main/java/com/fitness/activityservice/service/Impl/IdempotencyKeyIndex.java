@@ -0,0 +1,60 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.model.Activity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory pre-check for idempotency keys. A negative answer is definite and lets a new
+ * activity skip the duplicate lookup; a positive answer is confirmed against the unique
+ * (userId, idempotencyKey) index, which stays the source of truth across instances.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final BloomFilter bloomFilter;
+
+    public IdempotencyKeyIndex(MongoTemplate mongoTemplate,
+                               @Value("${activity.idempotency.expected-keys:1000000}") long expectedKeys,
+                               @Value("${activity.idempotency.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.bloomFilter = new BloomFilter(expectedKeys, falsePositiveRate);
+    }
+
+    public boolean mightContain(String userId, String idempotencyKey) {
+        return bloomFilter.mightContain(userId + ":" + idempotencyKey);
+    }
+
+    public void put(String userId, String idempotencyKey) {
+        bloomFilter.put(userId + ":" + idempotencyKey);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Query query = Query.query(Criteria.where("idempotencyKey").exists(true));
+        query.fields().include("userId").include("idempotencyKey");
+        AtomicLong loaded = new AtomicLong();
+        try (Stream<Activity> activities = mongoTemplate.stream(query, Activity.class)) {
+            activities.forEach(activity -> {
+                put(activity.getUserId(), activity.getIdempotencyKey());
+                loaded.incrementAndGet();
+            });
+            log.info("Loaded {} idempotency keys into the duplicate filter", loaded.get());
+        } catch (DataAccessException e) {
+            // Without warm-up every key reads as new; the unique index still rejects duplicates
+            log.error("Failed to warm up idempotency keys after {} entries: {}", loaded.get(), e.getMessage());
+        }
+    }
+}
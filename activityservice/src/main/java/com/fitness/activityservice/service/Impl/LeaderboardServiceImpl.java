@@ -0,0 +1,128 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.dto.LeaderboardEntry;
+import com.fitness.activityservice.dto.LeaderboardResponse;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityRollup;
+import com.fitness.activityservice.model.ActivityType;
+import com.fitness.activityservice.model.RollupGranularity;
+import com.fitness.activityservice.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves "top calories per activity type" boards for the current day and ISO week from memory.
+ * Boards are updated on every tracked activity and periodically rebuilt from the rollup
+ * collection, which also reconciles writes that landed on other instances.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${activity.leaderboard.size:100}")
+    private int boardSize;
+
+    private record BoardKey(ActivityType type, RollupGranularity window, LocalDate windowStart) {
+    }
+
+    private volatile Map<BoardKey, TopKBoard> boards = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(List<Activity> activities) {
+        Map<BoardKey, TopKBoard> current = boards;
+        LocalDate today = LocalDate.now();
+        for (Activity activity : activities) {
+            if (activity.getCaloriesBurned() == null || activity.getCaloriesBurned() <= 0) {
+                continue;
+            }
+            ActivityType type = activity.getType() == null ? ActivityType.OTHER : activity.getType();
+            for (RollupGranularity window : RollupGranularity.values()) {
+                LocalDate windowStart = window.bucketStart(activity.resolveActivityDate());
+                // Only the live window is kept in memory; late activities reach the boards on the next rebuild
+                if (windowStart.equals(window.bucketStart(today))) {
+                    board(current, new BoardKey(type, window, windowStart))
+                            .add(activity.getUserId(), activity.getCaloriesBurned());
+                }
+            }
+        }
+    }
+
+    @Override
+    public LeaderboardResponse getLeaderboard(ActivityType type, RollupGranularity window, int limit) {
+        LocalDate windowStart = window.bucketStart(LocalDate.now());
+        TopKBoard board = boards.get(new BoardKey(type, window, windowStart));
+
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        if (board != null) {
+            for (TopKBoard.Entry entry : board.top(Math.max(1, Math.min(limit, boardSize)))) {
+                entries.add(new LeaderboardEntry(entries.size() + 1, entry.userId(), entry.score()));
+            }
+        }
+
+        LeaderboardResponse response = new LeaderboardResponse();
+        response.setType(type);
+        response.setWindow(window);
+        response.setWindowStart(windowStart);
+        response.setEntries(entries);
+        return response;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${activity.leaderboard.refresh-interval-ms:60000}",
+            initialDelayString = "${activity.leaderboard.refresh-interval-ms:60000}")
+    public void rebuild() {
+        Map<BoardKey, TopKBoard> rebuilt = new ConcurrentHashMap<>();
+        LocalDate today = LocalDate.now();
+        try {
+            for (RollupGranularity window : RollupGranularity.values()) {
+                LocalDate windowStart = window.bucketStart(today);
+                Query query = Query.query(Criteria.where("granularity").is(window).and("bucketStart").is(windowStart));
+                query.fields().include("userId").include("byType");
+                try (Stream<ActivityRollup> rollups = mongoTemplate.stream(query, ActivityRollup.class)) {
+                    rollups.forEach(rollup -> addRollup(rebuilt, rollup, window, windowStart));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to rebuild leaderboards, keeping current boards: {}", e.getMessage());
+            return;
+        }
+        boards = rebuilt;
+        log.info("Rebuilt {} leaderboards from rollups", rebuilt.size());
+    }
+
+    private void addRollup(Map<BoardKey, TopKBoard> target, ActivityRollup rollup, RollupGranularity window,
+                           LocalDate windowStart) {
+        if (rollup.getByType() == null) {
+            return;
+        }
+        rollup.getByType().forEach((type, totals) -> {
+            if (totals.getCalories() > 0) {
+                board(target, new BoardKey(ActivityType.valueOf(type), window, windowStart))
+                        .add(rollup.getUserId(), totals.getCalories());
+            }
+        });
+    }
+
+    private TopKBoard board(Map<BoardKey, TopKBoard> target, BoardKey key) {
+        return target.computeIfAbsent(key, ignored -> new TopKBoard(boardSize));
+    }
+}
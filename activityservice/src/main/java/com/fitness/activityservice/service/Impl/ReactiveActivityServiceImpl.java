@@ -0,0 +1,96 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.dto.ActivityRequest;
+import com.fitness.activityservice.dto.ActivityResponse;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.repository.ReactiveActivityRepository;
+import com.fitness.activityservice.service.ActivityStatsService;
+import com.fitness.activityservice.service.LeaderboardService;
+import com.fitness.activityservice.service.ReactiveActivityService;
+import com.fitness.activityservice.service.UserValidateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveActivityServiceImpl implements ReactiveActivityService {
+
+    private final ReactiveActivityRepository reactiveActivityRepository;
+    private final UserValidateService userValidateService;
+    private final ActivityStatsService activityStatsService;
+    private final LeaderboardService leaderboardService;
+    private final IdempotencyKeyIndex idempotencyKeyIndex;
+
+    @Override
+    public Mono<ActivityResponse> trackActivity(ActivityRequest activityRequest) {
+        log.info("Processing reactive activity tracking request for user: {}", activityRequest.getUserId());
+
+        String idempotencyKey = activityRequest.getIdempotencyKey();
+        if (idempotencyKey != null && idempotencyKeyIndex.mightContain(activityRequest.getUserId(), idempotencyKey)) {
+            return reactiveActivityRepository.findByUserIdAndIdempotencyKey(activityRequest.getUserId(), idempotencyKey)
+                    .doOnNext(existing -> log.info("Duplicate activity request {} for user: {}",
+                            idempotencyKey, activityRequest.getUserId()))
+                    .map(ActivityMapper::toResponse)
+                    .switchIfEmpty(Mono.defer(() -> saveNewActivity(activityRequest)));
+        }
+        return saveNewActivity(activityRequest);
+    }
+
+    private Mono<ActivityResponse> saveNewActivity(ActivityRequest activityRequest) {
+        String idempotencyKey = activityRequest.getIdempotencyKey();
+        return userValidateService.validateUserReactive(activityRequest.getUserId())
+                .flatMap(isValidUser -> {
+                    if (!isValidUser) {
+                        log.error("Invalid user attempted to track activity: {}", activityRequest.getUserId());
+                        return Mono.error(new RuntimeException("Invalid User : " + activityRequest.getUserId()));
+                    }
+                    return reactiveActivityRepository.save(
+                                    ActivityMapper.toEntity(activityRequest, activityRequest.getUserId()))
+                            .doOnNext(savedActivity -> {
+                                log.info("Activity saved successfully with ID: {}", savedActivity.getActivityId());
+                                if (idempotencyKey != null) {
+                                    idempotencyKeyIndex.put(savedActivity.getUserId(), idempotencyKey);
+                                }
+                            })
+                            .flatMap(this::recordAggregates)
+                            .map(ActivityMapper::toResponse)
+                            // The unique idempotency index catches retries the filter has not seen
+                            .onErrorResume(e -> e instanceof DuplicateKeyException && idempotencyKey != null,
+                                    e -> reactiveActivityRepository
+                                            .findByUserIdAndIdempotencyKey(activityRequest.getUserId(), idempotencyKey)
+                                            .map(ActivityMapper::toResponse)
+                                            .switchIfEmpty(Mono.error(e)));
+                });
+    }
+
+    private Mono<Activity> recordAggregates(Activity savedActivity) {
+        return activityStatsService.recordReactive(savedActivity)
+                .then(Mono.fromRunnable(() -> leaderboardService.record(List.of(savedActivity))))
+                .thenReturn(savedActivity);
+    }
+
+    @Override
+    public Flux<ActivityResponse> getUserActivities(String userId) {
+        log.info("Streaming activities for user: {}", userId);
+        return reactiveActivityRepository.findByUserIdOrderByStartTimeDescActivityIdDesc(userId)
+                .map(ActivityMapper::toResponse);
+    }
+
+    @Override
+    public Mono<ActivityResponse> getActivity(String activityId) {
+        log.info("Fetching activity with ID: {}", activityId);
+        return reactiveActivityRepository.findById(activityId)
+                .map(ActivityMapper::toResponse)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("Activity not found with ID: {}", activityId);
+                    return Mono.error(new RuntimeException("Activity not found with ID : " + activityId));
+                }));
+    }
+}
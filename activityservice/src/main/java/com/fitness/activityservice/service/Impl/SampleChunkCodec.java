@@ -0,0 +1,132 @@
+package com.fitness.activityservice.service.Impl;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar encoding for one chunk of a sample series: timestamps as zig-zag varint
+ * delta-of-deltas, then values as zig-zag varint deltas, and the whole buffer deflated.
+ * A regular 1 Hz series costs about one byte per timestamp before compression.
+ */
+final class SampleChunkCodec {
+
+    private SampleChunkCodec() {
+    }
+
+    static byte[] encode(long[] offsets, long[] values, int count) {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(count * 3 + 16);
+        writeVarLong(raw, count);
+
+        long previousOffset = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = offsets[i] - previousOffset;
+            writeVarLong(raw, zigZag(delta - previousDelta));
+            previousDelta = delta;
+            previousOffset = offsets[i];
+        }
+
+        long previousValue = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarLong(raw, zigZag(values[i] - previousValue));
+            previousValue = values[i];
+        }
+
+        return deflate(raw.toByteArray());
+    }
+
+    /**
+     * Decodes a chunk into its offsets (index 0) and fixed-point values (index 1).
+     */
+    static long[][] decode(byte[] data) {
+        byte[] raw = inflate(data);
+        int[] position = {0};
+        int count = (int) readVarLong(raw, position);
+        long[] offsets = new long[count];
+        long[] values = new long[count];
+
+        long previousOffset = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = previousDelta + unZigZag(readVarLong(raw, position));
+            offsets[i] = previousOffset + delta;
+            previousDelta = delta;
+            previousOffset = offsets[i];
+        }
+
+        long previousValue = 0;
+        for (int i = 0; i < count; i++) {
+            values[i] = previousValue + unZigZag(readVarLong(raw, position));
+            previousValue = values[i];
+        }
+        return new long[][]{offsets, values};
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] in, int[] position) {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in[position[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated sample chunk");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt sample chunk", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.fitness.activityservice.service.Impl;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Concurrent top-K of users by accumulated score. Per-user totals are updated under the hash map's
+ * per-bin lock, and the ranking lives in a lock-free skip list trimmed to a little over K entries,
+ * so writers for different users never share a lock and readers never block.
+ */
+final class TopKBoard {
+
+    record Entry(String userId, long score) {
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::userId);
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Long> totals = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(RANKING);
+
+    TopKBoard(int k) {
+        // Keep some slack beyond K so ties and concurrent trims do not push real top-K users out
+        this.capacity = k * 2;
+    }
+
+    void add(String userId, long delta) {
+        totals.compute(userId, (id, current) -> {
+            long previous = current == null ? 0 : current;
+            long updated = previous + delta;
+            ranking.remove(new Entry(id, previous));
+            ranking.add(new Entry(id, updated));
+            return updated;
+        });
+        while (ranking.size() > capacity) {
+            ranking.pollLast();
+        }
+    }
+
+    List<Entry> top(int limit) {
+        return ranking.stream()
+                .limit(limit)
+                .toList();
+    }
+}
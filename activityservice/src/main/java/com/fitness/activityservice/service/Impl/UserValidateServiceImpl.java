@@ -1,32 +1,75 @@
 package com.fitness.activityservice.service.Impl;
 
+import com.fitness.activityservice.model.UserValidationStatus;
 import com.fitness.activityservice.service.UserValidateService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserValidateServiceImpl implements UserValidateService {
 
     private final WebClient userServiceWebClient;
+    private final AsyncCache<String, UserValidationStatus> userValidationCache;
 
+    @Override
     public boolean validateUser(String userId) {
+        UserValidationStatus status;
         try {
-            return Boolean.TRUE.equals(userServiceWebClient.get()
-                    .uri("/api/users/{userId}/validate", userId)
-                    .retrieve()
-                    .bodyToMono(Boolean.class)
-                    .block());
-        } catch (WebClientResponseException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new RuntimeException("User not found : " + userId);
-            } else if (e.getStatusCode() == HttpStatus.BAD_REQUEST) {
-                throw new RuntimeException("Invalid Request : " + userId);
+            // Concurrent misses for the same user share one in-flight call
+            status = userValidationCache.get(userId, (id, executor) -> fetchValidation(id)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof WebClientResponseException) {
+                return false;
             }
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : e;
+        }
+        return toValidationResult(userId, status);
+    }
+
+    @Override
+    public Mono<Boolean> validateUserReactive(String userId) {
+        return Mono.fromFuture(() -> userValidationCache.get(userId, (id, executor) -> fetchValidation(id)))
+                .map(status -> toValidationResult(userId, status))
+                .onErrorResume(WebClientResponseException.class, e -> Mono.just(false));
+    }
+
+    private boolean toValidationResult(String userId, UserValidationStatus status) {
+        if (status == UserValidationStatus.NOT_FOUND) {
+            throw new RuntimeException("User not found : " + userId);
+        } else if (status == UserValidationStatus.BAD_REQUEST) {
+            throw new RuntimeException("Invalid Request : " + userId);
         }
-        return false;
+        return status.isPositive();
+    }
+
+    private CompletableFuture<UserValidationStatus> fetchValidation(String userId) {
+        log.debug("User validation cache miss for user: {}", userId);
+        return userServiceWebClient.get()
+                .uri("/api/users/{userId}/validate", userId)
+                .retrieve()
+                .bodyToMono(Boolean.class)
+                .map(valid -> Boolean.TRUE.equals(valid) ? UserValidationStatus.VALID : UserValidationStatus.INVALID)
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Mono.just(UserValidationStatus.NOT_FOUND);
+                    } else if (e.getStatusCode() == HttpStatus.BAD_REQUEST) {
+                        return Mono.just(UserValidationStatus.BAD_REQUEST);
+                    }
+                    return Mono.error(e);
+                })
+                .toFuture();
     }
 }
@@ -0,0 +1,14 @@
+package com.fitness.activityservice.service;
+
+import com.fitness.activityservice.dto.LeaderboardResponse;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityType;
+import com.fitness.activityservice.model.RollupGranularity;
+
+import java.util.List;
+
+public interface LeaderboardService {
+    void record(List<Activity> activities);
+
+    LeaderboardResponse getLeaderboard(ActivityType type, RollupGranularity window, int limit);
+}
@@ -0,0 +1,14 @@
+package com.fitness.activityservice.service;
+
+import com.fitness.activityservice.dto.ActivityRequest;
+import com.fitness.activityservice.dto.ActivityResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveActivityService {
+    Mono<ActivityResponse> trackActivity(ActivityRequest activityRequest);
+
+    Flux<ActivityResponse> getUserActivities(String userId);
+
+    Mono<ActivityResponse> getActivity(String activityId);
+}
@@ -1,6 +1,10 @@
 package com.fitness.activityservice.service;
 
+import reactor.core.publisher.Mono;
+
 public interface UserValidateService {
 
     boolean validateUser(String userId);
+
+    Mono<Boolean> validateUserReactive(String userId);
 }
@@ -0,0 +1,65 @@
+package com.fitness.activityservice.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RabbitPublishMonitorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RabbitPublishMonitor publishMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publishMonitor = new RabbitPublishMonitor(meterRegistry);
+    }
+
+    private double confirms(String result) {
+        return meterRegistry.get("activity.publish.confirms").tag("result", result).counter().count();
+    }
+
+    @Test
+    void confirm_CountsAcksAndNacksAndRecordsLatency() throws InterruptedException {
+        TimedCorrelationData timed = new TimedCorrelationData("a-1");
+        Thread.sleep(5);
+
+        publishMonitor.confirm(timed, true, null);
+        publishMonitor.confirm(new TimedCorrelationData("a-2"), false, "queue full");
+
+        assertEquals(1.0, confirms("ack"));
+        assertEquals(1.0, confirms("nack"));
+        Timer latency = meterRegistry.get("activity.publish.confirm.latency").timer();
+        assertEquals(2, latency.count());
+        assertTrue(latency.max(TimeUnit.MILLISECONDS) >= 5);
+    }
+
+    @Test
+    void confirm_UntimedOrMissingCorrelation_CountsWithoutLatency() {
+        publishMonitor.confirm(new CorrelationData("a-1"), true, null);
+        publishMonitor.confirm(null, false, "channel closed");
+
+        assertEquals(1.0, confirms("ack"));
+        assertEquals(1.0, confirms("nack"));
+        assertEquals(0, meterRegistry.get("activity.publish.confirm.latency").timer().count());
+    }
+
+    @Test
+    void returnedMessage_CountsUnroutableMessage() {
+        Message message = new Message("{}".getBytes(), new MessageProperties());
+
+        publishMonitor.returnedMessage(new ReturnedMessage(message, 312, "NO_ROUTE", "activity.exchange", "missing.key"));
+
+        assertEquals(1.0, meterRegistry.get("activity.publish.returns").counter().count());
+    }
+}
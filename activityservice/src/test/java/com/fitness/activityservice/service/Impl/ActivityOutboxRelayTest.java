@@ -0,0 +1,184 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityLane;
+import com.fitness.activityservice.model.PublishStatus;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityOutboxRelayTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @InjectMocks
+    private ActivityOutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "exchange", "activity.exchange");
+        ReflectionTestUtils.setField(outboxRelay, "routingKey", "activity.routing.key");
+        ReflectionTestUtils.setField(outboxRelay, "bulkRoutingKey", "activity.bulk.routing.key");
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxRelay, "confirmTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxRelay, "lease", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(outboxRelay, "maxAttempts", 3);
+        lenient().when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Activity.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+    }
+
+    // Rows as read back after the claim, stamped with the claim id
+    private Activity createClaimedActivity(String activityId) {
+        return Activity.builder()
+                .activityId(activityId)
+                .userId("user-123")
+                .publishStatus(PublishStatus.IN_FLIGHT)
+                .publishAttempts(0)
+                .publishOwner("claim-1")
+                .build();
+    }
+
+    private void givenClaimed(Activity... activities) {
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of(activities));
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+    }
+
+    private static Document setOf(Update update) {
+        return (Document) update.getUpdateObject().get("$set");
+    }
+
+    @Test
+    void relayBatch_MarksOnlyConfirmedActivitiesPublished() {
+        givenClaimed(createClaimedActivity("a-1"), createClaimedActivity("a-2"));
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            boolean ack = correlationData.getId().equals("a-1");
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        int published = outboxRelay.relayBatch();
+
+        assertEquals(1, published);
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        // claim, published, park exhausted, release for retry
+        verify(mongoTemplate, times(4)).updateMulti(queries.capture(), updates.capture(), eq(Activity.class));
+        assertEquals(PublishStatus.IN_FLIGHT, setOf(updates.getAllValues().get(0)).get("publishStatus"));
+        assertTrue(queries.getAllValues().get(1).toString().contains("a-1"));
+        assertEquals(PublishStatus.PUBLISHED, setOf(updates.getAllValues().get(1)).get("publishStatus"));
+        assertTrue(queries.getAllValues().get(2).toString().contains("a-2"));
+        assertEquals(PublishStatus.FAILED, setOf(updates.getAllValues().get(2)).get("publishStatus"));
+        assertEquals(PublishStatus.PENDING, setOf(updates.getAllValues().get(3)).get("publishStatus"));
+        assertTrue(updates.getAllValues().get(3).toString().contains("publishAttempts"));
+    }
+
+    @Test
+    void relayBatch_ClaimsOnlyUnclaimedOrExpiredRows() {
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+
+        verify(mongoTemplate).find(argThat((Query query) -> {
+            String filter = query.toString();
+            return filter.contains("PENDING") && filter.contains("IN_FLIGHT") && filter.contains("publishLeaseUntil")
+                    && query.getLimit() == 10;
+        }), eq(Activity.class));
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void relayBatch_BrokerUnavailable_ReleasesWithoutUsingAnAttempt() {
+        givenClaimed(createClaimedActivity("a-1"));
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        doThrow(new AmqpConnectException(new RuntimeException("connection refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        int published = outboxRelay.relayBatch();
+
+        assertEquals(0, published);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), updates.capture(), eq(Activity.class));
+        Update release = updates.getAllValues().get(1);
+        assertEquals(PublishStatus.PENDING, setOf(release).get("publishStatus"));
+        assertFalse(release.toString().contains("publishAttempts"));
+    }
+
+    @Test
+    void relayBatch_PoisonActivity_DoesNotStopTheBatch() {
+        Activity poison = createClaimedActivity("a-1");
+        Activity healthy = createClaimedActivity("a-2");
+        givenClaimed(poison, healthy);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(false);
+        doThrow(new MessageConversionException("cannot serialize"))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), eq(poison), any(CorrelationData.class));
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        verify(rabbitTemplate).convertAndSend(eq("activity.exchange"), eq("activity.routing.key"), eq(healthy), any(CorrelationData.class));
+        verify(mongoTemplate).updateMulti(argThat((Query query) -> query.toString().contains("a-1")
+                        && query.toString().contains("publishAttempts")),
+                argThat((Update update) -> setOf(update).get("publishStatus") == PublishStatus.FAILED),
+                eq(Activity.class));
+    }
+
+    @Test
+    void relayBatch_NothingPending_DoesNotPublish() {
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+        verifyNoInteractions(rabbitTemplate);
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Activity.class));
+    }
+
+    @Test
+    void relayBatch_RoutesActivitiesByLane() {
+        Activity live = createClaimedActivity("a-1");
+        live.setLane(ActivityLane.LIVE);
+        Activity bulk = createClaimedActivity("a-2");
+        bulk.setLane(ActivityLane.BULK);
+        Activity legacy = createClaimedActivity("a-3");
+        givenClaimed(live, bulk, legacy);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(false);
+
+        assertEquals(3, outboxRelay.relayBatch());
+
+        verify(rabbitTemplate).convertAndSend(eq("activity.exchange"), eq("activity.routing.key"), eq(live), any(CorrelationData.class));
+        verify(rabbitTemplate).convertAndSend(eq("activity.exchange"), eq("activity.bulk.routing.key"), eq(bulk), any(CorrelationData.class));
+        verify(rabbitTemplate).convertAndSend(eq("activity.exchange"), eq("activity.routing.key"), eq(legacy), any(CorrelationData.class));
+    }
+}
@@ -0,0 +1,108 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.activityservice.dto.SampleUploadResponse;
+import com.fitness.activityservice.model.ActivitySampleChunk;
+import com.fitness.activityservice.model.ActivitySampleSeries;
+import com.fitness.activityservice.model.SampleMetric;
+import com.fitness.activityservice.repository.ActivityRepository;
+import com.fitness.activityservice.repository.ActivitySampleChunkRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivitySampleServiceImplTest {
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    @Mock
+    private ActivitySampleChunkRepository activitySampleChunkRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ActivitySampleServiceImpl activitySampleService;
+
+    @BeforeEach
+    void setUp() {
+        activitySampleService = new ActivitySampleServiceImpl(activityRepository, activitySampleChunkRepository,
+                new ObjectMapper(), mongoTemplate);
+        ReflectionTestUtils.setField(activitySampleService, "chunkSize", 2);
+        ReflectionTestUtils.setField(activitySampleService, "maxSamples", 1000L);
+        when(activityRepository.existsById("a-1")).thenReturn(true);
+    }
+
+    private static InputStream samples(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void uploadSamples_StagesChunksThenReplacesStoredSeries() {
+        SampleUploadResponse response = activitySampleService.uploadSamples("a-1", SampleMetric.HEART_RATE,
+                samples("{\"t\":0,\"v\":120}{\"t\":1000,\"v\":121}{\"t\":2000,\"v\":125}"));
+
+        assertEquals(3, response.getSamples());
+        assertEquals(2, response.getChunks());
+        ArgumentCaptor<ActivitySampleChunk> chunks = ArgumentCaptor.forClass(ActivitySampleChunk.class);
+        verify(activitySampleChunkRepository, times(2)).save(chunks.capture());
+        String uploadId = chunks.getValue().getUploadId();
+        assertTrue(chunks.getAllValues().stream()
+                .allMatch(chunk -> uploadId.equals(chunk.getUploadId()) && chunk.getStagedAt() != null));
+        verify(mongoTemplate).updateMulti(argThat((Query query) -> query.toString().contains(uploadId)),
+                argThat((Update update) -> update.toString().contains("$unset")), eq(ActivitySampleChunk.class));
+        ArgumentCaptor<Update> pointer = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(argThat((Query query) -> query.toString().contains("a-1:HEART_RATE")),
+                pointer.capture(), any(FindAndModifyOptions.class), eq(ActivitySampleSeries.class));
+        assertEquals(uploadId, ((Document) pointer.getValue().getUpdateObject().get("$set")).get("uploadId"));
+    }
+
+    @Test
+    void uploadSamples_RemovesOnlyThePublishedUploadItReplaced() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ActivitySampleSeries.class)))
+                .thenReturn(ActivitySampleSeries.builder().uploadId("previous-upload").build());
+
+        activitySampleService.uploadSamples("a-1", SampleMetric.HEART_RATE, samples("{\"t\":0,\"v\":120}"));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(ActivitySampleChunk.class));
+        Document criteria = removed.getValue().getQueryObject();
+        assertEquals("previous-upload", criteria.get("uploadId"));
+        // Chunks of an upload still staging are never touched
+        assertTrue(criteria.containsKey("stagedAt"));
+        assertNull(criteria.get("stagedAt"));
+    }
+
+    @Test
+    void uploadSamples_InvalidSampleAfterStoredChunk_DiscardsStagedChunks() {
+        assertThrows(RuntimeException.class, () -> activitySampleService.uploadSamples("a-1", SampleMetric.HEART_RATE,
+                samples("{\"t\":0,\"v\":120}{\"t\":1000,\"v\":121}{\"t\":500,\"v\":125}")));
+
+        ArgumentCaptor<ActivitySampleChunk> chunk = ArgumentCaptor.forClass(ActivitySampleChunk.class);
+        verify(activitySampleChunkRepository).save(chunk.capture());
+        verify(mongoTemplate).remove(argThat((Query query) -> query.toString().contains(chunk.getValue().getUploadId())
+                && !query.toString().contains("$ne")), eq(ActivitySampleChunk.class));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(ActivitySampleChunk.class));
+    }
+}
@@ -0,0 +1,264 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.dto.ActivityPageResponse;
+import com.fitness.activityservice.dto.ActivityRequest;
+import com.fitness.activityservice.dto.ActivityResponse;
+import com.fitness.activityservice.dto.BatchActivityRequest;
+import com.fitness.activityservice.dto.BatchActivityResponse;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityLane;
+import com.fitness.activityservice.model.ActivityType;
+import com.fitness.activityservice.model.PublishStatus;
+import com.fitness.activityservice.repository.ActivityRepository;
+import com.fitness.activityservice.service.ActivityStatsService;
+import com.fitness.activityservice.service.LeaderboardService;
+import com.fitness.activityservice.service.UserValidateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityServiceImplTest {
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    @Mock
+    private UserValidateService userValidateService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ActivityStatsService activityStatsService;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private IdempotencyKeyIndex idempotencyKeyIndex;
+
+    @InjectMocks
+    private ActivityServiceImpl activityService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(activityService, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(activityService, "maxPageSize", 50);
+        ReflectionTestUtils.setField(activityService, "maxScanPageSize", 100);
+    }
+
+    private ActivityRequest createActivityRequest(ActivityType type) {
+        ActivityRequest request = new ActivityRequest();
+        request.setType(type);
+        request.setDuration(30);
+        request.setCaloriesBurned(300);
+        return request;
+    }
+
+    private BatchActivityRequest createBatchRequest(ActivityRequest... requests) {
+        BatchActivityRequest batchRequest = new BatchActivityRequest();
+        batchRequest.setUserId("user-123");
+        batchRequest.setActivities(List.of(requests));
+        return batchRequest;
+    }
+
+    @Test
+    void trackActivities_ValidatesUserOnceAndInsertsInBulk() {
+        BatchActivityRequest batchRequest = createBatchRequest(
+                createActivityRequest(ActivityType.RUNNING),
+                createActivityRequest(ActivityType.CYCLING));
+        when(userValidateService.validateUser("user-123")).thenReturn(true);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Activity.class)))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        BatchActivityResponse response = activityService.trackActivities(batchRequest);
+
+        assertEquals(2, response.getAccepted());
+        assertEquals(0, response.getRejected());
+        assertTrue(response.getResults().stream().allMatch(result -> result.getActivity().getActivityId() != null));
+        verify(userValidateService, times(1)).validateUser("user-123");
+        verify(bulkOperations, times(1)).execute();
+        verify(activityRepository, never()).save(any());
+        verify(activityStatsService, times(1)).recordAll(argThat(activities -> activities.size() == 2));
+        verify(bulkOperations).insert(argThat((List<? extends Object> activities) -> activities.stream()
+                .allMatch(activity -> ((Activity) activity).getPublishStatus() == PublishStatus.PENDING
+                        && ((Activity) activity).getLane() == ActivityLane.BULK)));
+    }
+
+    @Test
+    void trackActivities_InvalidItem_ReportedAsPartialFailure() {
+        ActivityRequest foreignUser = createActivityRequest(ActivityType.RUNNING);
+        foreignUser.setUserId("user-999");
+        BatchActivityRequest batchRequest = createBatchRequest(
+                createActivityRequest(ActivityType.YOGA),
+                createActivityRequest(null),
+                foreignUser);
+        when(userValidateService.validateUser("user-123")).thenReturn(true);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Activity.class)))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        BatchActivityResponse response = activityService.trackActivities(batchRequest);
+
+        assertEquals(1, response.getAccepted());
+        assertEquals(2, response.getRejected());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertFalse(response.getResults().get(1).isSuccess());
+        assertFalse(response.getResults().get(2).isSuccess());
+    }
+
+    @Test
+    void trackActivities_InvalidUser_ThrowsException() {
+        BatchActivityRequest batchRequest = createBatchRequest(createActivityRequest(ActivityType.RUNNING));
+        when(userValidateService.validateUser("user-123")).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> activityService.trackActivities(batchRequest));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Activity.class));
+    }
+
+    @Test
+    void trackActivities_BatchTooLarge_ThrowsException() {
+        ActivityRequest[] requests = new ActivityRequest[11];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = createActivityRequest(ActivityType.WALKING);
+        }
+
+        assertThrows(RuntimeException.class, () -> activityService.trackActivities(createBatchRequest(requests)));
+        verify(userValidateService, never()).validateUser(any());
+    }
+
+    @Test
+    void getUserActivitiesPage_ReturnsCursorWhenMoreResultsExist() {
+        Activity newest = Activity.builder().activityId("650000000000000000000002").userId("user-123")
+                .startTime(LocalDateTime.of(2024, 5, 2, 8, 0)).build();
+        Activity older = Activity.builder().activityId("650000000000000000000001").userId("user-123")
+                .startTime(LocalDateTime.of(2024, 5, 1, 8, 0)).build();
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of(newest, older));
+
+        ActivityPageResponse page = activityService.getUserActivitiesPage("user-123", null, 1);
+
+        assertTrue(page.isHasMore());
+        assertEquals(1, page.getActivities().size());
+        assertNotNull(page.getNextCursor());
+
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of(older));
+        ActivityPageResponse nextPage = activityService.getUserActivitiesPage("user-123", page.getNextCursor(), 1);
+
+        assertFalse(nextPage.isHasMore());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void getUserActivitiesPage_InvalidCursor_ThrowsException() {
+        assertThrows(RuntimeException.class,
+                () -> activityService.getUserActivitiesPage("user-123", "not-a-cursor", 10));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Activity.class));
+    }
+
+    @Test
+    void getUserActivitiesPage_CursorWithBadTimestamp_ThrowsInvalidCursor() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("yesterday|650000000000000000000001".getBytes(StandardCharsets.UTF_8));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> activityService.getUserActivitiesPage("user-123", cursor, 10));
+        assertTrue(e.getMessage().startsWith("Invalid cursor"));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Activity.class));
+    }
+
+    @Test
+    void scanActivities_ReturnsLastIdAsNextPosition() {
+        Activity first = Activity.builder().activityId("650000000000000000000001").userId("user-1").build();
+        Activity second = Activity.builder().activityId("650000000000000000000002").userId("user-2").build();
+        Activity third = Activity.builder().activityId("650000000000000000000003").userId("user-3").build();
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of(first, second, third));
+
+        ActivityPageResponse page = activityService.scanActivities("650000000000000000000000", 2);
+
+        assertTrue(page.isHasMore());
+        assertEquals(2, page.getActivities().size());
+        assertEquals("650000000000000000000002", page.getNextCursor());
+        verify(mongoTemplate).find(argThat((Query query) -> query.getLimit() == 3
+                && query.getQueryObject().toJson().contains("$gt")), eq(Activity.class));
+    }
+
+    @Test
+    void scanActivities_InvalidPosition_ThrowsException() {
+        assertThrows(RuntimeException.class, () -> activityService.scanActivities("not-an-id", 10));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Activity.class));
+    }
+
+    @Test
+    void trackActivity_KnownIdempotencyKey_ReturnsOriginalWithoutWrites() {
+        ActivityRequest request = createActivityRequest(ActivityType.RUNNING);
+        request.setUserId("user-123");
+        request.setIdempotencyKey("retry-1");
+        Activity original = Activity.builder().activityId("650000000000000000000001").userId("user-123")
+                .type(ActivityType.RUNNING).idempotencyKey("retry-1").build();
+        when(idempotencyKeyIndex.mightContain("user-123", "retry-1")).thenReturn(true);
+        when(activityRepository.findByUserIdAndIdempotencyKey("user-123", "retry-1")).thenReturn(Optional.of(original));
+
+        ActivityResponse response = activityService.trackActivity(request);
+
+        assertEquals("650000000000000000000001", response.getActivityId());
+        verify(userValidateService, never()).validateUser(any());
+        verify(activityRepository, never()).save(any());
+        verify(activityStatsService, never()).record(any());
+    }
+
+    @Test
+    void trackActivity_DuplicateKeyOnSave_ReturnsOriginal() {
+        ActivityRequest request = createActivityRequest(ActivityType.RUNNING);
+        request.setUserId("user-123");
+        request.setIdempotencyKey("retry-2");
+        Activity original = Activity.builder().activityId("650000000000000000000002").userId("user-123")
+                .type(ActivityType.RUNNING).idempotencyKey("retry-2").build();
+        when(idempotencyKeyIndex.mightContain("user-123", "retry-2")).thenReturn(false);
+        when(userValidateService.validateUser("user-123")).thenReturn(true);
+        when(activityRepository.save(any(Activity.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(activityRepository.findByUserIdAndIdempotencyKey("user-123", "retry-2")).thenReturn(Optional.of(original));
+
+        ActivityResponse response = activityService.trackActivity(request);
+
+        assertEquals("650000000000000000000002", response.getActivityId());
+        verify(activityStatsService, never()).record(any());
+        verify(leaderboardService, never()).record(any());
+    }
+
+    @Test
+    void trackActivity_DuplicateKeyWithoutIdempotencyKey_Rethrows() {
+        ActivityRequest request = createActivityRequest(ActivityType.RUNNING);
+        request.setUserId("user-123");
+        when(userValidateService.validateUser("user-123")).thenReturn(true);
+        when(activityRepository.save(any(Activity.class))).thenThrow(new DuplicateKeyException("duplicate"));
+
+        assertThrows(DuplicateKeyException.class, () -> activityService.trackActivity(request));
+        verify(activityRepository, never()).findByUserIdAndIdempotencyKey(any(), any());
+    }
+}
@@ -0,0 +1,213 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.dto.ActivityStatsResponse;
+import com.fitness.activityservice.model.Activity;
+import com.fitness.activityservice.model.ActivityRollup;
+import com.fitness.activityservice.model.ActivityType;
+import com.fitness.activityservice.model.RollupGranularity;
+import com.fitness.activityservice.model.RollupRepair;
+import com.fitness.activityservice.repository.ActivityRollupRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityStatsServiceImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ActivityRollupRepository activityRollupRepository;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkOperations repairOperations;
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Mock
+    private ReactiveBulkOperations reactiveBulkOperations;
+
+    @InjectMocks
+    private ActivityStatsServiceImpl activityStatsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(activityStatsService, "maxRangeDays", 366L);
+        ReflectionTestUtils.setField(activityStatsService, "repairBatchSize", 100);
+    }
+
+    private Activity createActivity() {
+        return Activity.builder()
+                .activityId("a-1")
+                .userId("user-123")
+                .type(ActivityType.RUNNING)
+                .duration(30)
+                .caloriesBurned(300)
+                .startTime(LocalDateTime.of(2024, 5, 2, 7, 30)) // Thursday
+                .build();
+    }
+
+    @Test
+    void record_UpsertsDailyAndIsoWeekBuckets() {
+        Activity activity = Activity.builder()
+                .userId("user-123")
+                .type(ActivityType.RUNNING)
+                .duration(30)
+                .caloriesBurned(300)
+                .startTime(LocalDateTime.of(2024, 5, 2, 7, 30)) // Thursday
+                .build();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class)).thenReturn(bulkOperations);
+
+        activityStatsService.record(activity);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).upsert(queries.capture(), updates.capture());
+        assertTrue(queries.getAllValues().get(0).toString().contains("user-123:DAY:2024-05-02"));
+        assertTrue(queries.getAllValues().get(1).toString().contains("user-123:WEEK:2024-04-29"));
+        assertTrue(updates.getValue().toString().contains("byType.RUNNING.calories"));
+        verify(bulkOperations, times(1)).execute();
+    }
+
+    @Test
+    void recordAll_FailedIncrement_SchedulesRepairForTheDay() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RollupRepair.class)).thenReturn(repairOperations);
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        activityStatsService.recordAll(List.of(createActivity()));
+
+        verify(repairOperations).upsert(argThat((Query query) -> query.toString().contains("user-123:2024-05-02")),
+                any(Update.class));
+        verify(repairOperations).execute();
+    }
+
+    @Test
+    void repairRollups_RebuildsBucketsFromActivitiesAndClearsMarker() {
+        RollupRepair repair = RollupRepair.builder().id("user-123:2024-05-02").userId("user-123")
+                .activityDate(LocalDate.of(2024, 5, 2)).requestedAt(LocalDateTime.of(2024, 5, 2, 8, 0)).build();
+        Activity second = createActivity();
+        second.setType(ActivityType.YOGA);
+        second.setCaloriesBurned(100);
+        when(mongoTemplate.find(any(Query.class), eq(RollupRepair.class))).thenReturn(List.of(repair));
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of(createActivity(), second));
+
+        activityStatsService.repairRollups();
+
+        ArgumentCaptor<Query> filters = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> rollups = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).upsert(filters.capture(), rollups.capture(), eq(ActivityRollup.class));
+        assertTrue(filters.getAllValues().get(0).toString().contains("user-123:DAY:2024-05-02"));
+        Document day = (Document) rollups.getAllValues().get(0).getUpdateObject().get("$set");
+        assertEquals(2L, day.get("count"));
+        assertEquals(400L, day.get("totalCalories"));
+        @SuppressWarnings("unchecked")
+        Map<String, ActivityRollup.TypeTotals> byType = (Map<String, ActivityRollup.TypeTotals>) day.get("byType");
+        assertEquals(100, byType.get("YOGA").getCalories());
+        assertTrue(filters.getAllValues().get(1).toString().contains("user-123:WEEK:2024-04-29"));
+        verify(mongoTemplate, never()).save(any(ActivityRollup.class));
+        verify(mongoTemplate).remove(argThat((Query query) -> query.toString().contains("requestedAt")),
+                eq(RollupRepair.class));
+    }
+
+    @Test
+    void rebuildBucket_IncrementLandsDuringRebuild_RetriesOnTheNewVersion() {
+        ActivityRollup before = ActivityRollup.builder().id("user-123:DAY:2024-05-02").version(3L).build();
+        ActivityRollup after = ActivityRollup.builder().id("user-123:DAY:2024-05-02").version(4L).build();
+        when(mongoTemplate.findById("user-123:DAY:2024-05-02", ActivityRollup.class)).thenReturn(before, after);
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of(createActivity()));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ActivityRollup.class)))
+                .thenThrow(new DuplicateKeyException("E11000"))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        activityStatsService.rebuildBucket("user-123", RollupGranularity.DAY, LocalDate.of(2024, 5, 2));
+
+        ArgumentCaptor<Query> filters = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).upsert(filters.capture(), any(Update.class), eq(ActivityRollup.class));
+        assertTrue(filters.getAllValues().get(0).toString().contains("\"version\" : 3"));
+        assertTrue(filters.getAllValues().get(1).toString().contains("\"version\" : 4"));
+    }
+
+    @Test
+    void rebuildBucket_KeepsChanging_FailsSoTheMarkerStays() {
+        when(mongoTemplate.find(any(Query.class), eq(Activity.class))).thenReturn(List.of(createActivity()));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ActivityRollup.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                activityStatsService.rebuildBucket("user-123", RollupGranularity.DAY, LocalDate.of(2024, 5, 2)));
+    }
+
+    @Test
+    void recordReactive_UsesReactiveBulkWrite() {
+        when(reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class))
+                .thenReturn(reactiveBulkOperations);
+        when(reactiveBulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+
+        activityStatsService.recordReactive(createActivity()).block();
+
+        verify(reactiveBulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getStats_SumsBucketTotals() {
+        ActivityRollup first = ActivityRollup.builder().bucketStart(LocalDate.of(2024, 5, 1))
+                .count(2).totalDuration(60).totalCalories(500).build();
+        ActivityRollup second = ActivityRollup.builder().bucketStart(LocalDate.of(2024, 5, 2))
+                .count(1).totalDuration(45).totalCalories(400).build();
+        when(activityRollupRepository.findBuckets(eq("user-123"), eq(RollupGranularity.DAY),
+                eq(LocalDate.of(2024, 5, 1)), eq(LocalDate.of(2024, 5, 7)), any(Sort.class)))
+                .thenReturn(List.of(first, second));
+
+        ActivityStatsResponse response = activityStatsService.getStats("user-123",
+                LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 7), RollupGranularity.DAY);
+
+        assertEquals(2, response.getBuckets().size());
+        assertEquals(3, response.getTotalCount());
+        assertEquals(105, response.getTotalDuration());
+        assertEquals(900, response.getTotalCalories());
+    }
+
+    @Test
+    void getStats_FromAfterTo_ThrowsException() {
+        assertThrows(RuntimeException.class, () -> activityStatsService.getStats("user-123",
+                LocalDate.of(2024, 5, 7), LocalDate.of(2024, 5, 1), RollupGranularity.DAY));
+        verifyNoInteractions(activityRollupRepository);
+    }
+}
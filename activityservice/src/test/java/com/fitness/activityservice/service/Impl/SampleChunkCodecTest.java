@@ -0,0 +1,42 @@
+package com.fitness.activityservice.service.Impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleChunkCodecTest {
+
+    @Test
+    void encode_RoundTripsOffsetsAndValues() {
+        long[] offsets = {0, 1000, 2000, 3500, 4500, 10_000};
+        long[] values = {120, 121, 119, 140, -5, 0};
+
+        long[][] decoded = SampleChunkCodec.decode(SampleChunkCodec.encode(offsets, values, offsets.length));
+
+        assertArrayEquals(offsets, decoded[0]);
+        assertArrayEquals(values, decoded[1]);
+    }
+
+    @Test
+    void encode_OneHourOfOneHertzHeartRate_FitsInKilobytes() {
+        int count = 3600;
+        long[] offsets = new long[count];
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = i * 1000L;
+            values[i] = 130 + Math.round(20 * Math.sin(i / 60.0)) + (i % 3);
+        }
+
+        byte[] encoded = SampleChunkCodec.encode(offsets, values, count);
+        long[][] decoded = SampleChunkCodec.decode(encoded);
+
+        assertTrue(encoded.length < 4096, "encoded size was " + encoded.length);
+        assertArrayEquals(offsets, decoded[0]);
+        assertArrayEquals(values, decoded[1]);
+    }
+
+    @Test
+    void decode_CorruptData_ThrowsException() {
+        assertThrows(IllegalStateException.class, () -> SampleChunkCodec.decode(new byte[]{1, 2, 3}));
+    }
+}
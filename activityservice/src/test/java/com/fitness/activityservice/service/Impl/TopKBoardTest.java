@@ -0,0 +1,58 @@
+package com.fitness.activityservice.service.Impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKBoardTest {
+
+    @Test
+    void add_AccumulatesScoresAndRanksDescending() {
+        TopKBoard board = new TopKBoard(3);
+        board.add("alice", 300);
+        board.add("bob", 500);
+        board.add("carol", 200);
+        board.add("alice", 400);
+
+        List<TopKBoard.Entry> top = board.top(2);
+
+        assertEquals(2, top.size());
+        assertEquals(new TopKBoard.Entry("alice", 700), top.get(0));
+        assertEquals(new TopKBoard.Entry("bob", 500), top.get(1));
+    }
+
+    @Test
+    void add_LowScoresTrimmedButReenterWhenTheyGrow() {
+        TopKBoard board = new TopKBoard(1);
+        board.add("alice", 300);
+        board.add("bob", 200);
+        board.add("carol", 100);
+
+        assertEquals("alice", board.top(1).get(0).userId());
+
+        board.add("carol", 500);
+
+        assertEquals(new TopKBoard.Entry("carol", 600), board.top(1).get(0));
+    }
+
+    @Test
+    void add_ConcurrentWritersKeepExactTotals() throws InterruptedException {
+        TopKBoard board = new TopKBoard(10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8000; i++) {
+            String userId = "user-" + (i % 4);
+            executor.execute(() -> board.add(userId, 10));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<TopKBoard.Entry> top = board.top(10);
+        assertEquals(4, top.size());
+        top.forEach(entry -> assertEquals(20_000, entry.score()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.fitness.activityservice.service.Impl;
+
+import com.fitness.activityservice.model.UserValidationStatus;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserValidateServiceImplTest {
+
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+
+    private UserValidateServiceImpl createService(HttpStatus status, String body) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    remoteCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        AsyncCache<String, UserValidationStatus> cache = Caffeine.newBuilder().maximumSize(100).buildAsync();
+        return new UserValidateServiceImpl(webClient, cache);
+    }
+
+    @Test
+    void validateUser_ValidUser_CachedAfterFirstCall() {
+        UserValidateServiceImpl service = createService(HttpStatus.OK, "true");
+
+        assertTrue(service.validateUser("user-123"));
+        assertTrue(service.validateUser("user-123"));
+        assertEquals(1, remoteCalls.get());
+    }
+
+    @Test
+    void validateUser_UnknownUser_NegativeResultCached() {
+        UserValidateServiceImpl service = createService(HttpStatus.NOT_FOUND, "");
+
+        assertThrows(RuntimeException.class, () -> service.validateUser("user-404"));
+        assertThrows(RuntimeException.class, () -> service.validateUser("user-404"));
+        assertEquals(1, remoteCalls.get());
+    }
+
+    @Test
+    void validateUser_ServerError_NotCached() {
+        UserValidateServiceImpl service = createService(HttpStatus.INTERNAL_SERVER_ERROR, "");
+
+        assertFalse(service.validateUser("user-500"));
+        assertFalse(service.validateUser("user-500"));
+        assertEquals(2, remoteCalls.get());
+    }
+}
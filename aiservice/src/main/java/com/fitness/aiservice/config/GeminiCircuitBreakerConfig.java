@@ -0,0 +1,53 @@
+package com.fitness.aiservice.config;
+
+import com.fitness.aiservice.service.Impl.GeminiGovernor;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class GeminiCircuitBreakerConfig {
+
+    @Value("${ai.gemini.breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${ai.gemini.breaker.slow-call-threshold:45s}")
+    private Duration slowCallThreshold;
+
+    @Value("${ai.gemini.breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${ai.gemini.breaker.open-duration:30s}")
+    private Duration openDuration;
+
+    @Value("${ai.gemini.call-timeout:60s}")
+    private Duration callTimeout;
+
+    /**
+     * Only provider-side failures open the breaker, so bad requests and local queue rejections do
+     * not. The breaker wraps the HTTP exchange inside the governor, so the slow-call threshold and
+     * the time limiter measure Gemini alone; the limiter enforces the same per-call deadline.
+     */
+    @Bean
+    public Customizer<ReactiveResilience4JCircuitBreakerFactory> geminiCircuitBreakerCustomizer() {
+        return factory -> factory.configure(builder -> builder
+                .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                        .failureRateThreshold(failureRateThreshold)
+                        .slowCallDurationThreshold(slowCallThreshold)
+                        .slidingWindowSize(windowSize)
+                        .minimumNumberOfCalls(Math.min(windowSize, 10))
+                        .waitDurationInOpenState(openDuration)
+                        .permittedNumberOfCallsInHalfOpenState(3)
+                        .recordException(GeminiGovernor::isProviderFailure)
+                        .build())
+                .timeLimiterConfig(TimeLimiterConfig.custom()
+                        .timeoutDuration(callTimeout)
+                        .build()), "gemini");
+    }
+}
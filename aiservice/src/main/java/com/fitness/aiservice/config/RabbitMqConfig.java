@@ -1,20 +1,40 @@
 package com.fitness.aiservice.config;
 
+import com.fitness.aiservice.model.ActivityLane;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.HeadersExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMqConfig {
 
+    public static final String RETRY_RETURN_EXCHANGE = "activity.retry.return";
+
+    public static final String RETRY_ATTEMPT_HEADER = "x-retry-attempt";
+
+    public static final String ORIGIN_LANE_HEADER = "x-origin-lane";
+
+    public static final String LAST_ERROR_HEADER = "x-last-error";
+
     @Value("${rabbitmq.queue.name}")
     private String queue;
 
@@ -24,6 +44,27 @@ public class RabbitMqConfig {
     @Value("${rabbitmq.routing.key}")
     private String routingKey;
 
+    @Value("${rabbitmq.bulk.queue.name:activity.bulk.queue}")
+    private String bulkQueue;
+
+    @Value("${rabbitmq.bulk.routing.key:activity.bulk.routing.key}")
+    private String bulkRoutingKey;
+
+    @Value("${rabbitmq.dead-letter.queue.name:activity.dlq}")
+    private String deadLetterQueue;
+
+    @Value("${ai.retry.delays:5s,30s,2m}")
+    private List<Duration> retryDelays;
+
+    @Value("${ai.lanes.bulk.prefetch:4}")
+    private int bulkPrefetch;
+
+    @Value("${ai.pipeline.prefetch:16}")
+    private int pipelinePrefetch;
+
+    @Value("${ai.pipeline.consumers:2}")
+    private int pipelineConsumers;
+
     @Bean
     public Queue activityQueue() {
         return new Queue(queue, true); // durable queue
@@ -39,6 +80,44 @@ public class RabbitMqConfig {
         return BindingBuilder.bind(activityQueue).to(activityExchange).with(routingKey);
     }
 
+    @Bean
+    public Queue activityBulkQueue() {
+        return new Queue(bulkQueue, true);
+    }
+
+    @Bean
+    public Binding activityBulkBinding(Queue activityBulkQueue, DirectExchange activityExchange) {
+        return BindingBuilder.bind(activityBulkQueue).to(activityExchange).with(bulkRoutingKey);
+    }
+
+    /**
+     * Retry topology. A failed activity is parked in the delay queue for its attempt; when the TTL
+     * expires the broker dead-letters it to the return exchange, which routes it back to the lane it
+     * came from by the x-origin-lane header. Activities that run out of attempts go to the DLQ.
+     */
+    @Bean
+    public Declarables activityRetryTopology(Queue activityQueue, Queue activityBulkQueue) {
+        List<Declarable> declarables = new ArrayList<>();
+        HeadersExchange returnExchange = new HeadersExchange(RETRY_RETURN_EXCHANGE);
+        declarables.add(returnExchange);
+        declarables.add(BindingBuilder.bind(activityQueue).to(returnExchange)
+                .where(ORIGIN_LANE_HEADER).matches(ActivityLane.LIVE.name()));
+        declarables.add(BindingBuilder.bind(activityBulkQueue).to(returnExchange)
+                .where(ORIGIN_LANE_HEADER).matches(ActivityLane.BULK.name()));
+        for (Duration delay : retryDelays) {
+            declarables.add(QueueBuilder.durable(delayQueueName(delay))
+                    .ttl((int) delay.toMillis())
+                    .deadLetterExchange(RETRY_RETURN_EXCHANGE)
+                    .build());
+        }
+        declarables.add(QueueBuilder.durable(deadLetterQueue).build());
+        return new Declarables(declarables);
+    }
+
+    public static String delayQueueName(Duration delay) {
+        return "activity.retry." + delay.toMillis() + "ms";
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -50,4 +129,36 @@ public class RabbitMqConfig {
         template.setMessageConverter(jsonMessageConverter());
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Container factory for the pipeline listener. Acks are issued by the framework when the async
+     * listener result completes, so prefetch x consumers is the in-flight window towards Gemini.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory pipelineListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setPrefetchCount(pipelinePrefetch);
+        factory.setConcurrentConsumers(pipelineConsumers);
+        factory.setMaxConcurrentConsumers(pipelineConsumers);
+        return factory;
+    }
+
+    /**
+     * Bulk lane: one consumer with a small prefetch, so most of a backfill stays on the broker
+     * instead of in the pipeline competing with live activities.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory bulkPipelineListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setPrefetchCount(bulkPrefetch);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        return factory;
+    }
+}
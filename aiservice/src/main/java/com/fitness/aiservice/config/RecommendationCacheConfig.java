@@ -0,0 +1,33 @@
+package com.fitness.aiservice.config;
+
+import com.fitness.aiservice.model.RecommendationTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RecommendationCacheConfig {
+
+    @Value("${ai.recommendation-cache.max-size:5000}")
+    private long maxSize;
+
+    @Value("${ai.recommendation-cache.ttl:6h}")
+    private Duration ttl;
+
+    @Bean
+    public Cache<String, RecommendationTemplate> recommendationTemplateCache(MeterRegistry meterRegistry) {
+        Cache<String, RecommendationTemplate> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendationTemplate");
+        return cache;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fitness.aiservice.config;
+
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class WebClientConfig {
+
+    // Load balancing is added per client; the shared builder also serves the external Gemini API
+    @Bean
+    public WebClient activityServiceWebClient(WebClient.Builder webClientBuilder,
+                                              ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+        return webClientBuilder.clone()
+                .baseUrl("http://ACTIVITY-SERVICE")
+                .filter(loadBalancerFunction)
+                .build();
+    }
+}
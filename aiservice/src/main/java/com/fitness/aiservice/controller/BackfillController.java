@@ -0,0 +1,48 @@
+package com.fitness.aiservice.controller;
+
+import com.fitness.aiservice.dto.BackfillRequest;
+import com.fitness.aiservice.model.BackfillJob;
+import com.fitness.aiservice.service.BackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/recommendations/backfills")
+public class BackfillController {
+
+    private final BackfillService backfillService;
+
+    @PostMapping
+    public ResponseEntity<BackfillJob> startBackfill(@RequestBody(required = false) BackfillRequest request) {
+        return ResponseEntity.ok(backfillService.startBackfill(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BackfillJob>> getBackfills() {
+        return ResponseEntity.ok(backfillService.getBackfills());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BackfillJob> getBackfill(@PathVariable String jobId) {
+        return ResponseEntity.ok(backfillService.getBackfill(jobId));
+    }
+
+    @PostMapping("/{jobId}/pause")
+    public ResponseEntity<BackfillJob> pauseBackfill(@PathVariable String jobId) {
+        return ResponseEntity.ok(backfillService.pauseBackfill(jobId));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<BackfillJob> resumeBackfill(@PathVariable String jobId) {
+        return ResponseEntity.ok(backfillService.resumeBackfill(jobId));
+    }
+}
@@ -0,0 +1,32 @@
+package com.fitness.aiservice.controller;
+
+import com.fitness.aiservice.dto.DeadLetterReplayResponse;
+import com.fitness.aiservice.model.DeadLetteredActivity;
+import com.fitness.aiservice.service.DeadLetterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/recommendations/dead-letters")
+public class DeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+
+    @GetMapping
+    public ResponseEntity<List<DeadLetteredActivity>> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(deadLetterService.getDeadLetters(limit));
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replay(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(deadLetterService.replay(limit));
+    }
+}
@@ -3,12 +3,16 @@ package com.fitness.aiservice.controller;
 import com.fitness.aiservice.model.Recommendation;
 import com.fitness.aiservice.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -16,6 +20,8 @@ import java.util.List;
 @RequestMapping("/api/recommendations")
 public class RecommendationController {
 
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
     private final RecommendationService recommendationService;
 
     @GetMapping("/user/{userId}")
@@ -28,4 +34,32 @@ public class RecommendationController {
         return ResponseEntity.ok(recommendationService.getActivityRecommendation(activityId));
     }
 
+    /**
+     * Pushes the activity's recommendation once it is saved, then closes. A "timeout" event is sent
+     * if it is not ready within the configured wait.
+     */
+    @GetMapping(value = "/activity/{activityId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Recommendation>> streamActivityRecommendation(@PathVariable String activityId) {
+        return recommendationService.awaitActivityRecommendation(activityId)
+                .map(recommendation -> ServerSentEvent.builder(recommendation)
+                        .id(activityId)
+                        .event("recommendation")
+                        .build())
+                .defaultIfEmpty(ServerSentEvent.<Recommendation>builder().event("timeout").build())
+                .flux();
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Recommendation>> streamUserRecommendations(@PathVariable String userId) {
+        Flux<ServerSentEvent<Recommendation>> recommendations = recommendationService.streamUserRecommendations(userId)
+                .map(recommendation -> ServerSentEvent.builder(recommendation)
+                        .id(recommendation.getActivityId())
+                        .event("recommendation")
+                        .build());
+        // Comment-only heartbeats open the stream right away and keep proxies from closing it when idle
+        Flux<ServerSentEvent<Recommendation>> heartbeats = Flux.interval(Duration.ZERO, HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<Recommendation>builder().comment("heartbeat").build());
+        return recommendations.publish(shared ->
+                Flux.merge(shared, heartbeats.takeUntilOther(shared.ignoreElements())));
+    }
 }
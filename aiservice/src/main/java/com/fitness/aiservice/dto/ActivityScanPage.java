@@ -0,0 +1,16 @@
+package com.fitness.aiservice.dto;
+
+import com.fitness.aiservice.model.Activity;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of activity-service's keyset scan.
+ */
+@Data
+public class ActivityScanPage {
+    private List<Activity> activities;
+    private String nextCursor;
+    private boolean hasMore;
+}
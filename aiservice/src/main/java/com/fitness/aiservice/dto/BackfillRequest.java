@@ -0,0 +1,13 @@
+package com.fitness.aiservice.dto;
+
+import lombok.Data;
+
+/**
+ * Overrides for a new backfill; anything left null uses the ai.backfill defaults.
+ */
+@Data
+public class BackfillRequest {
+    private Double ratePerSecond;
+    private Integer parallelism;
+    private Integer pageSize;
+}
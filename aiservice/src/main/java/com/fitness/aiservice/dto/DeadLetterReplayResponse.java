@@ -0,0 +1,15 @@
+package com.fitness.aiservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetterReplayResponse {
+    private int replayed;
+    private long remaining;
+}
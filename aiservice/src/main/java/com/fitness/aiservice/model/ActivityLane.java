@@ -0,0 +1,10 @@
+package com.fitness.aiservice.model;
+
+/**
+ * Queue an activity arrived on. Live activities come from users waiting in the app; bulk ones from
+ * batch imports and backfills.
+ */
+public enum ActivityLane {
+    LIVE,
+    BULK
+}
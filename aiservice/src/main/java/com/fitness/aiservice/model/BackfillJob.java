@@ -0,0 +1,41 @@
+package com.fitness.aiservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A run that regenerates recommendations for every activity. {@code checkpoint} is the last activity
+ * id of the last fully processed page; a resumed job continues after it. The owner and lease keep
+ * a job running on one instance at a time.
+ */
+@Document(collection = "backfill_job")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BackfillJob {
+    @Id
+    private String id;
+    private BackfillStatus status;
+    private String checkpoint;
+    private long processed;
+    private long failed;
+    private double ratePerSecond;
+    private int parallelism;
+    private int pageSize;
+    private double throughputPerSecond;
+    private String lastError;
+
+    private String owner;
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
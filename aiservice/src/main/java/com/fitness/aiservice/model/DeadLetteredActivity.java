@@ -0,0 +1,33 @@
+package com.fitness.aiservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * An activity that ran out of retry attempts, kept with its last error so it can be inspected and
+ * replayed.
+ */
+@Document(collection = "dead_lettered_activity")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetteredActivity {
+    @Id
+    private String activityId;
+    private String userId;
+    private ActivityLane lane;
+    private Integer attempts;
+    private String lastError;
+    private Activity activity;
+
+    @Indexed
+    private LocalDateTime deadLetteredAt;
+}
@@ -0,0 +1,59 @@
+package com.fitness.aiservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Activity-independent part of a Gemini recommendation, stored under the normalized feature key of
+ * the activity it was generated for so similar activities can reuse it.
+ */
+@Document(collection = "recommendation_template")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecommendationTemplate {
+    @Id
+    private String featureKey;
+    private String activityType;
+    private String recommendation;
+    private List<String> improvements;
+    private List<String> suggestions;
+    private List<String> safety;
+
+    @Indexed(name = "template_ttl_idx", expireAfter = "30d")
+    private LocalDateTime createdAt;
+
+    public static RecommendationTemplate from(String featureKey, Recommendation recommendation) {
+        return RecommendationTemplate.builder()
+                .featureKey(featureKey)
+                .activityType(recommendation.getActivityType())
+                .recommendation(recommendation.getRecommendation())
+                .improvements(recommendation.getImprovements())
+                .suggestions(recommendation.getSuggestions())
+                .safety(recommendation.getSafety())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    public Recommendation personalize(Activity activity) {
+        return Recommendation.builder()
+                .activityId(activity.getActivityId())
+                .userId(activity.getUserId())
+                .activityType(activity.getType())
+                .recommendation(recommendation)
+                .improvements(improvements)
+                .suggestions(suggestions)
+                .safety(safety)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
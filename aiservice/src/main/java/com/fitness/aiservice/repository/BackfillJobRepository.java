@@ -0,0 +1,15 @@
+package com.fitness.aiservice.repository;
+
+import com.fitness.aiservice.model.BackfillJob;
+import com.fitness.aiservice.model.BackfillStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BackfillJobRepository extends MongoRepository<BackfillJob, String> {
+    List<BackfillJob> findByStatus(BackfillStatus status);
+
+    List<BackfillJob> findAllByOrderByStartedAtDesc();
+}
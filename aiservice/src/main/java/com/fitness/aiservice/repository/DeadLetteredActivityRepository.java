@@ -0,0 +1,13 @@
+package com.fitness.aiservice.repository;
+
+import com.fitness.aiservice.model.DeadLetteredActivity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeadLetteredActivityRepository extends MongoRepository<DeadLetteredActivity, String> {
+    List<DeadLetteredActivity> findAllByOrderByDeadLetteredAtAsc(Pageable pageable);
+}
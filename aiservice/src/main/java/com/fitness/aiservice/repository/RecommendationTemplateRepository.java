@@ -0,0 +1,9 @@
+package com.fitness.aiservice.repository;
+
+import com.fitness.aiservice.model.RecommendationTemplate;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecommendationTemplateRepository extends MongoRepository<RecommendationTemplate, String> {
+}
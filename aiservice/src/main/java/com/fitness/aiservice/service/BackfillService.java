@@ -0,0 +1,18 @@
+package com.fitness.aiservice.service;
+
+import com.fitness.aiservice.dto.BackfillRequest;
+import com.fitness.aiservice.model.BackfillJob;
+
+import java.util.List;
+
+public interface BackfillService {
+    BackfillJob startBackfill(BackfillRequest request);
+
+    BackfillJob pauseBackfill(String jobId);
+
+    BackfillJob resumeBackfill(String jobId);
+
+    BackfillJob getBackfill(String jobId);
+
+    List<BackfillJob> getBackfills();
+}
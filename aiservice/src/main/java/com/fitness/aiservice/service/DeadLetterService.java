@@ -0,0 +1,16 @@
+package com.fitness.aiservice.service;
+
+import com.fitness.aiservice.dto.DeadLetterReplayResponse;
+import com.fitness.aiservice.model.DeadLetteredActivity;
+
+import java.util.List;
+
+public interface DeadLetterService {
+    List<DeadLetteredActivity> getDeadLetters(int limit);
+
+    /**
+     * Republishes up to {@code limit} of the oldest dead-lettered activities and removes them from
+     * the store.
+     */
+    DeadLetterReplayResponse replay(int limit);
+}
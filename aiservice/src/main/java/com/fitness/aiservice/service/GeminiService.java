@@ -1,5 +1,15 @@
 package com.fitness.aiservice.service;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public interface GeminiService {
     String getAnswer(String question);
+
+    Mono<String> getAnswerAsync(String question);
+
+    /**
+     * Streams the answer text as the provider generates it, one element per received chunk.
+     */
+    Flux<String> streamAnswer(String question);
 }
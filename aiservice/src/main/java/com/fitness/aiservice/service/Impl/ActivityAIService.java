@@ -4,92 +4,365 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fitness.aiservice.model.Activity;
 import com.fitness.aiservice.model.Recommendation;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ActivityAIService {
 
+    private static final Map<String, String> ANALYSIS_SECTIONS = sections();
+
     private final GeminiServiceImpl geminiService;
 
+    private final RecommendationCache recommendationCache;
+
+    private final RuleBasedRecommendationEngine ruleEngine;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.gemini.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    @Value("${ai.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${ai.batching.max-size:8}")
+    private int batchMaxSize;
+
+    @Value("${ai.batching.max-wait-ms:200}")
+    private long batchMaxWaitMs;
+
+    @Value("${ai.batching.max-concurrent-batches:4}")
+    private int maxConcurrentBatches;
+
+    // Upper bound on a batched caller's wait, above the Gemini call timeout plus time queued for a slot
+    @Value("${ai.batching.result-timeout:3m}")
+    private Duration batchResultTimeout;
+
+    private RecommendationBatcher batcher;
+
+    @PostConstruct
+    void startBatcher() {
+        if (batchingEnabled) {
+            batcher = new RecommendationBatcher(batchMaxSize, Duration.ofMillis(batchMaxWaitMs),
+                    maxConcurrentBatches, batchResultTimeout, this::processBatch);
+            log.info("Micro-batching Gemini prompts: up to {} activities or {} ms", batchMaxSize, batchMaxWaitMs);
+        }
+    }
+
+    @PreDestroy
+    void stopBatcher() {
+        if (batcher != null) {
+            batcher.shutdown();
+            batcher = null;
+        }
+    }
+
     public Recommendation generateRecommendation(Activity activity) {
+        if (ruleEngine.isTrivial(activity)) {
+            return recommendByRules(activity, "trivial");
+        }
+        String featureKey = recommendationCache.isEnabled() ? recommendationCache.keyFor(activity) : null;
+        if (featureKey != null) {
+            Optional<Recommendation> cached = recommendationCache.lookup(featureKey, activity);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
         String prompt = createPromptForActivity(activity);
-        String aiResponse = geminiService.getAnswer(prompt);
+        String aiResponse;
+        try {
+            aiResponse = geminiService.getAnswer(prompt);
+        } catch (CallNotPermittedException e) {
+            return recommendByRules(activity, "breaker-open");
+        }
         log.info("RESPONSE FROM AI: {} ", aiResponse);
-        return processAiResponse(activity, aiResponse);
+        return processAiResponse(activity, aiResponse, featureKey);
+    }
+
+    public Mono<Recommendation> generateRecommendationAsync(Activity activity) {
+        return generateRecommendationAsync(activity, Mono.empty());
+    }
+
+    /**
+     * Like {@link #generateRecommendationAsync(Activity)}, but waits for {@code beforeGemini} only
+     * when the activity is headed for Gemini, so callers pacing against the Gemini budget are not
+     * charged for trivial activities or cache hits.
+     */
+    public Mono<Recommendation> generateRecommendationAsync(Activity activity, Mono<Void> beforeGemini) {
+        if (ruleEngine.isTrivial(activity)) {
+            return Mono.fromSupplier(() -> recommendByRules(activity, "trivial"));
+        }
+        if (!recommendationCache.isEnabled()) {
+            return beforeGemini.then(dispatch(activity, null));
+        }
+        String featureKey = recommendationCache.keyFor(activity);
+        return Mono.fromCallable(() -> recommendationCache.lookup(featureKey, activity))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> cached.map(Mono::just)
+                        .orElseGet(() -> beforeGemini.then(dispatch(activity, featureKey))));
+    }
+
+    private Mono<Recommendation> dispatch(Activity activity, String featureKey) {
+        return batcher != null ? batcher.submit(activity, featureKey) : requestRecommendation(activity, featureKey);
     }
 
-    private Recommendation processAiResponse(Activity activity, String aiResponse) {
+    /**
+     * Sends one prompt for the whole batch and splits the returned JSON array back per activity.
+     * Activities missing from the split, or all of them if the response cannot be split, fall back
+     * to a single-activity call. A failed batch call fails every activity in the batch.
+     */
+    private Mono<Void> processBatch(List<RecommendationBatcher.Pending> batch) {
+        meterRegistry.summary("ai.batch.size").record(batch.size());
+        if (batch.size() == 1) {
+            RecommendationBatcher.Pending pending = batch.get(0);
+            return complete(pending, requestRecommendation(pending.activity(), pending.featureKey()));
+        }
+
+        List<Activity> activities = batch.stream().map(RecommendationBatcher.Pending::activity).toList();
+        return geminiService.getAnswerAsync(createPromptForActivities(activities))
+                .publishOn(Schedulers.boundedElastic())
+                .map(aiResponse -> splitBatchResponse(activities, aiResponse))
+                .flatMap(analyses -> Flux.fromIterable(batch)
+                        .flatMap(pending -> {
+                            JsonNode analysis = analyses.get(pending.activity().getActivityId());
+                            if (analysis == null) {
+                                meterRegistry.counter("ai.batch.fallbacks").increment();
+                                return complete(pending, requestRecommendation(pending.activity(), pending.featureKey()));
+                            }
+                            return complete(pending, Mono.fromCallable(() ->
+                                    processAnalysis(pending.activity(), analysis, pending.featureKey())));
+                        })
+                        .then())
+                .onErrorResume(CallNotPermittedException.class, e -> Flux.fromIterable(batch)
+                        .flatMap(pending -> complete(pending, Mono.fromSupplier(() ->
+                                recommendByRules(pending.activity(), "breaker-open"))))
+                        .then());
+    }
+
+    private Mono<Void> complete(RecommendationBatcher.Pending pending, Mono<Recommendation> recommendation) {
+        return recommendation
+                .doOnNext(result -> pending.result().tryEmitValue(result))
+                .doOnError(e -> pending.result().tryEmitError(e))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Map<String, JsonNode> splitBatchResponse(List<Activity> activities, String aiResponse) {
+        Map<String, JsonNode> analyses = new HashMap<>();
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode rootNode = mapper.readTree(aiResponse);
+            JsonNode analysisArray = objectMapper.readTree(extractResponseText(aiResponse));
+            if (!analysisArray.isArray()) {
+                log.warn("Batch response was not a JSON array, falling back to single prompts");
+                return analyses;
+            }
+            boolean positional = analysisArray.size() == activities.size();
+            for (int i = 0; i < analysisArray.size(); i++) {
+                JsonNode analysis = analysisArray.get(i);
+                String activityId = analysis.path("activityId").asText(null);
+                if (activityId == null && positional) {
+                    activityId = activities.get(i).getActivityId();
+                }
+                if (activityId != null) {
+                    analyses.put(activityId, analysis);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not split batch response for {} activities: {}", activities.size(), e.getMessage());
+        }
+        return analyses;
+    }
 
-            JsonNode textNode = rootNode.path("candidates")
-                    .get(0)
-                    .path("content")
-                    .path("parts")
-                    .get(0)
-                    .path("text");
+    private Mono<Recommendation> requestRecommendation(Activity activity, String featureKey) {
+        if (streamingEnabled) {
+            return streamRecommendation(activity, featureKey);
+        }
+        String prompt = createPromptForActivity(activity);
+        return geminiService.getAnswerAsync(prompt)
+                .doOnNext(aiResponse -> log.debug("RESPONSE FROM AI: {} ", aiResponse))
+                // Storing the template may write to Mongo
+                .publishOn(Schedulers.boundedElastic())
+                .map(aiResponse -> processAiResponse(activity, aiResponse, featureKey))
+                .onErrorResume(CallNotPermittedException.class, e ->
+                        Mono.fromSupplier(() -> recommendByRules(activity, "breaker-open")));
+    }
 
-            String jsonContent = textNode.asText()
-                    .replaceAll("```json\\n", "")
-                    .replaceAll("\\n```", "")
-                    .trim();
+    /**
+     * Feeds streamed chunks into an incremental parser so sections are captured while Gemini is
+     * still generating, recording the time until the first complete section arrives.
+     */
+    private Mono<Recommendation> streamRecommendation(Activity activity, String featureKey) {
+        return Mono.defer(() -> {
+            StreamingRecommendationParser parser;
+            try {
+                parser = new StreamingRecommendationParser();
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+            long startNanos = System.nanoTime();
+            AtomicBoolean firstSection = new AtomicBoolean();
 
-//            log.info("PARSED RESPONSE FROM AI: {} ", jsonContent);
+            return geminiService.streamAnswer(createPromptForActivity(activity))
+                    .doOnNext(chunk -> {
+                        try {
+                            parser.feed(chunk);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (parser.hasSection() && firstSection.compareAndSet(false, true)) {
+                            meterRegistry.timer("ai.gemini.stream.first-section")
+                                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .then(Mono.fromCallable(() -> {
+                        parser.finish();
+                        return assembleRecommendation(activity, parser.getAnalysis(), parser.getImprovements(),
+                                parser.getSuggestions(), parser.getSafety());
+                    }))
+                    // Storing the template may write to Mongo
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(recommendation -> {
+                        if (featureKey != null) {
+                            recommendationCache.store(featureKey, recommendation);
+                        }
+                        return recommendation;
+                    })
+                    .onErrorResume(e -> e instanceof IOException || e instanceof UncheckedIOException, e -> {
+                        log.warn("Could not parse streamed AI response for activity {}: {}",
+                                activity.getActivityId(), e.getMessage());
+                        return Mono.fromSupplier(() -> recommendByRules(activity, "unparseable"));
+                    })
+                    .onErrorResume(CallNotPermittedException.class, e ->
+                            Mono.fromSupplier(() -> recommendByRules(activity, "breaker-open")));
+        });
+    }
 
-            JsonNode analysisJson = mapper.readTree(jsonContent);
-            JsonNode analysisNode = analysisJson.path("analysis");
-
-            StringBuilder fullAnalysis = new StringBuilder();
-            addAnalysisSection(fullAnalysis, analysisNode, "overall", "Overall:");
-            addAnalysisSection(fullAnalysis, analysisNode, "pace", "Pace:");
-            addAnalysisSection(fullAnalysis, analysisNode, "heartRate", "Heart Rate:");
-            addAnalysisSection(fullAnalysis, analysisNode, "caloriesBurned", "Calories:");
-
-            List<String> improvements = extractImprovements(analysisJson.path("improvements"));
-            List<String> suggestions = extractSuggestions(analysisJson.path("suggestions"));
-            List<String> safety = extractSafetyGuidelines(analysisJson.path("safety"));
-
-            return Recommendation.builder()
-                    .activityId(activity.getActivityId())
-                    .userId(activity.getUserId())
-                    .activityType(activity.getType())
-                    .recommendation(fullAnalysis.toString().trim())
-                    .improvements(improvements)
-                    .suggestions(suggestions)
-                    .safety(safety)
-                    .createdAt(LocalDateTime.now())
-                    .build();
+    private Recommendation recommendByRules(Activity activity, String reason) {
+        meterRegistry.counter("ai.recommendation.rules", "reason", reason).increment();
+        return ruleEngine.recommend(activity);
+    }
 
+    private Recommendation processAiResponse(Activity activity, String aiResponse, String featureKey) {
+        try {
+            Recommendation recommendation = parseAiResponse(activity, aiResponse);
+            if (featureKey != null) {
+                recommendationCache.store(featureKey, recommendation);
+            }
+            return recommendation;
         } catch (Exception e) {
-            e.printStackTrace();
-            return createDefaultRecommendation(activity);
+            log.warn("Could not parse AI response for activity {}: {}", activity.getActivityId(), e.getMessage());
+            return recommendByRules(activity, "unparseable");
+        }
+    }
+
+    private Recommendation processAnalysis(Activity activity, JsonNode analysisJson, String featureKey) {
+        Recommendation recommendation = toRecommendation(activity, analysisJson);
+        if (featureKey != null) {
+            recommendationCache.store(featureKey, recommendation);
         }
+        return recommendation;
+    }
+
+    private Recommendation parseAiResponse(Activity activity, String aiResponse) throws Exception {
+        String jsonContent = extractResponseText(aiResponse);
+
+//            log.info("PARSED RESPONSE FROM AI: {} ", jsonContent);
+
+        return toRecommendation(activity, objectMapper.readTree(jsonContent));
+    }
+
+    private String extractResponseText(String aiResponse) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(aiResponse);
+
+        JsonNode textNode = rootNode.path("candidates")
+                .get(0)
+                .path("content")
+                .path("parts")
+                .get(0)
+                .path("text");
+
+        return stripCodeFence(textNode.asText());
+    }
+
+    /**
+     * Cuts the JSON value out of a possibly fenced answer in one pass instead of regex replaces.
+     */
+    static String stripCodeFence(String text) {
+        int objectStart = text.indexOf('{');
+        int arrayStart = text.indexOf('[');
+        int start = objectStart < 0 ? arrayStart : arrayStart < 0 ? objectStart : Math.min(objectStart, arrayStart);
+        int end = Math.max(text.lastIndexOf('}'), text.lastIndexOf(']'));
+        return start >= 0 && end > start ? text.substring(start, end + 1) : text.trim();
+    }
+
+    private Recommendation toRecommendation(Activity activity, JsonNode analysisJson) {
+        JsonNode analysisNode = analysisJson.path("analysis");
+        Map<String, String> analysis = new HashMap<>();
+        ANALYSIS_SECTIONS.keySet().forEach(key -> {
+            if (!analysisNode.path(key).isMissingNode()) {
+                analysis.put(key, analysisNode.path(key).asText());
+            }
+        });
+
+        return assembleRecommendation(activity, analysis,
+                extractPairs(analysisJson.path("improvements"), "area", "recommendation"),
+                extractPairs(analysisJson.path("suggestions"), "workout", "description"),
+                extractSafetyGuidelines(analysisJson.path("safety")));
     }
 
-    private Recommendation createDefaultRecommendation(Activity activity) {
+    private Recommendation assembleRecommendation(Activity activity, Map<String, String> analysis,
+                                                  List<String> improvements, List<String> suggestions,
+                                                  List<String> safety) {
+        StringBuilder fullAnalysis = new StringBuilder();
+        ANALYSIS_SECTIONS.forEach((key, prefix) -> {
+            if (analysis.containsKey(key)) {
+                fullAnalysis.append(prefix)
+                        .append(analysis.get(key))
+                        .append("\n\n");
+            }
+        });
+
         return Recommendation.builder()
                 .activityId(activity.getActivityId())
                 .userId(activity.getUserId())
                 .activityType(activity.getType())
-                .recommendation("Unable to generate detailed analysis")
-                .improvements(Collections.singletonList("Continue with your current routine"))
-                .suggestions(Collections.singletonList("Consider consulting a fitness professional"))
-                .safety(Arrays.asList(
-                        "Always warm up before exercise",
-                        "Stay hydrated",
-                        "Listen to your body"
-                ))
+                .recommendation(fullAnalysis.toString().trim())
+                .improvements(improvements.isEmpty() ?
+                        Collections.singletonList("No specific improvements provided") :
+                        improvements)
+                .suggestions(suggestions.isEmpty() ?
+                        Collections.singletonList("No specific suggestions provided") :
+                        suggestions)
+                .safety(safety.isEmpty() ?
+                        Collections.singletonList("Follow general safety guidelines") :
+                        safety)
                 .createdAt(LocalDateTime.now())
                 .build();
     }
@@ -99,45 +372,25 @@ public class ActivityAIService {
         if (safetyNode.isArray()) {
             safetyNode.forEach(item -> safety.add(item.asText()));
         }
-        return safety.isEmpty() ?
-                Collections.singletonList("Follow general safety guidelines") :
-                safety;
-    }
-
-    private List<String> extractSuggestions(JsonNode suggestionsNode) {
-        List<String> suggestions = new ArrayList<>();
-        if (suggestionsNode.isArray()) {
-            suggestionsNode.forEach(suggestion -> {
-                String workout = suggestion.path("workout").asText();
-                String description = suggestion.path("description").asText();
-                suggestions.add(String.format("%s: %s", workout, description));
-            });
-        }
-        return suggestions.isEmpty() ?
-                Collections.singletonList("No specific suggestions provided") :
-                suggestions;
-    }
-
-    private List<String> extractImprovements(JsonNode improvementsNode) {
-        List<String> improvements = new ArrayList<>();
-        if (improvementsNode.isArray()) {
-            improvementsNode.forEach(improvement -> {
-                String area = improvement.path("area").asText();
-                String detail = improvement.path("recommendation").asText();
-                improvements.add(String.format("%s: %s", area, detail));
-            });
-        }
-        return improvements.isEmpty() ?
-                Collections.singletonList("No specific improvements provided") :
-                improvements;
+        return safety;
     }
 
-    private void addAnalysisSection(StringBuilder fullAnalysis, JsonNode analysisNode, String key, String prefix) {
-        if (!analysisNode.path(key).isMissingNode()) {
-            fullAnalysis.append(prefix)
-                    .append(analysisNode.path(key).asText())
-                    .append("\n\n");
+    private List<String> extractPairs(JsonNode arrayNode, String titleField, String detailField) {
+        List<String> items = new ArrayList<>();
+        if (arrayNode.isArray()) {
+            arrayNode.forEach(item -> items.add(String.format("%s: %s",
+                    item.path(titleField).asText(), item.path(detailField).asText())));
         }
+        return items;
+    }
+
+    private static Map<String, String> sections() {
+        Map<String, String> sections = new LinkedHashMap<>();
+        sections.put("overall", "Overall:");
+        sections.put("pace", "Pace:");
+        sections.put("heartRate", "Heart Rate:");
+        sections.put("caloriesBurned", "Calories:");
+        return Collections.unmodifiableMap(sections);
     }
 
     private String createPromptForActivity(Activity activity) {
@@ -183,4 +436,60 @@ public class ActivityAIService {
                 activity.getAdditionalMetrics()
         );
     }
+
+    private String createPromptForActivities(List<Activity> activities) {
+        StringBuilder activityList = new StringBuilder();
+        for (Activity activity : activities) {
+            activityList.append(String.format("""
+                            - Activity Id: %s
+                              Activity Type: %s
+                              Duration: %d minutes
+                              Calories Burned: %d
+                              Additional Metrics: %s
+                            """,
+                    activity.getActivityId(),
+                    activity.getType(),
+                    activity.getDuration(),
+                    activity.getCaloriesBurned(),
+                    activity.getAdditionalMetrics()));
+        }
+        return String.format("""
+                        Analyze each of the following %d fitness activities and provide detailed recommendations.
+                        Respond with a JSON array containing exactly one element per activity, in the same order,
+                        where every element follows this EXACT JSON format:
+                        {
+                          "activityId": "The Activity Id given below",
+                          "analysis": {
+                            "overall": "Overall analysis here",
+                            "pace": "Pace analysis here",
+                            "heartRate": "Heart rate analysis here",
+                            "caloriesBurned": "Calories analysis here"
+                          },
+                          "improvements": [
+                            {
+                              "area": "Area name",
+                              "recommendation": "Detailed recommendation"
+                            }
+                          ],
+                          "suggestions": [
+                            {
+                              "workout": "Workout name",
+                              "description": "Detailed workout description"
+                            }
+                          ],
+                          "safety": [
+                            "Safety point 1",
+                            "Safety point 2"
+                          ]
+                        }
+                        
+                        Analyze these activities:
+                        %s
+                        Provide detailed analysis focusing on performance, improvements, next workout suggestions, and safety guidelines.
+                        Ensure the response is a JSON array whose elements follow the EXACT JSON format shown above.
+                        """,
+                activities.size(),
+                activityList
+        );
+    }
 }
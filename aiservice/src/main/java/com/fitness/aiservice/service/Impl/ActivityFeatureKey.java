@@ -0,0 +1,46 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Normalizes an activity to the features the prompt is sensitive to: type, duration band, calorie
+ * band and the sorted set of metric keys. Activities with the same key get the same template.
+ */
+final class ActivityFeatureKey {
+
+    private ActivityFeatureKey() {
+    }
+
+    static String of(Activity activity, int durationBandMinutes, int calorieBand) {
+        String type = activity.getType() == null ? "UNKNOWN" : activity.getType().toUpperCase(Locale.ROOT);
+        return type
+                + "|d" + band(activity.getDuration(), durationBandMinutes)
+                + "|c" + band(activity.getCaloriesBurned(), calorieBand)
+                + "|" + metricKeys(activity.getAdditionalMetrics());
+    }
+
+    /**
+     * Rounds to the nearest multiple of the band width, so 28 and 32 minutes both land in the 30 band.
+     */
+    static int band(Integer value, int width) {
+        if (value == null || value <= 0) {
+            return 0;
+        }
+        return Math.round((float) value / width) * width;
+    }
+
+    private static String metricKeys(Map<String, Object> additionalMetrics) {
+        if (additionalMetrics == null || additionalMetrics.isEmpty()) {
+            return "-";
+        }
+        return additionalMetrics.keySet().stream()
+                .map(key -> key.trim().toLowerCase(Locale.ROOT))
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(","));
+    }
+}
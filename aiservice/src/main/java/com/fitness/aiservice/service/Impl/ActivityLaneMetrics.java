@@ -0,0 +1,57 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.ActivityLane;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-lane lag measured from the activity's createdAt: when the consumer receives it, and when its
+ * recommendation has been saved (time-to-recommendation).
+ */
+@Component
+public class ActivityLaneMetrics {
+
+    private final Map<ActivityLane, Timer> receivedLag = new EnumMap<>(ActivityLane.class);
+    private final Map<ActivityLane, Timer> completedLag = new EnumMap<>(ActivityLane.class);
+
+    public ActivityLaneMetrics(MeterRegistry meterRegistry) {
+        for (ActivityLane lane : ActivityLane.values()) {
+            receivedLag.put(lane, lagTimer(meterRegistry, lane, "received"));
+            completedLag.put(lane, lagTimer(meterRegistry, lane, "completed"));
+        }
+    }
+
+    public void received(ActivityLane lane, Activity activity) {
+        record(receivedLag.get(lane), activity);
+    }
+
+    public void completed(ActivityLane lane, Activity activity) {
+        record(completedLag.get(lane), activity);
+    }
+
+    private void record(Timer timer, Activity activity) {
+        if (activity.getCreatedAt() == null) {
+            return;
+        }
+        Duration lag = Duration.between(activity.getCreatedAt(), LocalDateTime.now());
+        if (!lag.isNegative()) {
+            timer.record(lag);
+        }
+    }
+
+    private static Timer lagTimer(MeterRegistry meterRegistry, ActivityLane lane, String stage) {
+        return Timer.builder("ai.lane.lag")
+                .description("Time since the activity was created")
+                .tag("lane", lane.name().toLowerCase())
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -1,27 +1,58 @@
 package com.fitness.aiservice.service.Impl;
 
+import com.fitness.aiservice.config.RabbitMqConfig;
 import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.ActivityLane;
 import com.fitness.aiservice.model.Recommendation;
 import com.fitness.aiservice.repository.RecommendationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "ai.pipeline.enabled", havingValue = "false", matchIfMissing = true)
 public class ActivityMessageListener {
 
     private final ActivityAIService aiService;
 
     private final RecommendationRepository recommendationRepository;
 
+    private final RecommendationEventRegistry eventRegistry;
+
+    private final ActivityLaneMetrics laneMetrics;
+
+    private final ActivityRetryPublisher retryPublisher;
+
     @RabbitListener(queues = "activity.queue")
-    public void processActivity(Activity activity) {
+    public void processActivity(Activity activity,
+                                @Header(name = RabbitMqConfig.RETRY_ATTEMPT_HEADER, required = false) Integer retries) {
         log.info("Received activity for processing : " + activity.getActivityId());
         //log.info("Response from AI : "+ aiService.generateRecommendation(activity));
-        Recommendation recommendation = aiService.generateRecommendation(activity);
-        recommendationRepository.save(recommendation);
+        process(activity, ActivityLane.LIVE, retries);
+    }
+
+    // A single consumer keeps bulk work from taking more than one Gemini call at a time
+    @RabbitListener(queues = "activity.bulk.queue", concurrency = "1")
+    public void processBulkActivity(Activity activity,
+                                    @Header(name = RabbitMqConfig.RETRY_ATTEMPT_HEADER, required = false) Integer retries) {
+        log.debug("Received bulk activity for processing : {}", activity.getActivityId());
+        process(activity, ActivityLane.BULK, retries);
+    }
+
+    private void process(Activity activity, ActivityLane lane, Integer retries) {
+        laneMetrics.received(lane, activity);
+        try {
+            Recommendation recommendation = aiService.generateRecommendation(activity);
+            eventRegistry.publish(recommendationRepository.save(recommendation));
+            laneMetrics.completed(lane, activity);
+        } catch (RuntimeException e) {
+            // Hand the activity to a delay queue rather than letting the container requeue it in place
+            retryPublisher.handleFailure(activity, lane, retries, e);
+        }
     }
 }
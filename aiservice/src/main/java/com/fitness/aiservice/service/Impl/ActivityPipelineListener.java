@@ -0,0 +1,68 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.config.RabbitMqConfig;
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.ActivityLane;
+import com.fitness.aiservice.repository.RecommendationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Pipeline-mode consumer for the live and bulk activity queues. The listener thread only starts the
+ * Gemini call and returns; the container acks the delivery once the recommendation has been
+ * persisted. A failed activity is handed to the {@link ActivityRetryPublisher} and acked, so it never
+ * spins on the work queue. The number of activities in flight is bounded by
+ * prefetch x consumers per lane, and bulk work additionally passes the {@link BulkLaneGate}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ai.pipeline.enabled", havingValue = "true")
+public class ActivityPipelineListener {
+
+    private final ActivityAIService aiService;
+
+    private final RecommendationRepository recommendationRepository;
+
+    private final RecommendationEventRegistry eventRegistry;
+
+    private final BulkLaneGate bulkLaneGate;
+
+    private final ActivityLaneMetrics laneMetrics;
+
+    private final ActivityRetryPublisher retryPublisher;
+
+    @RabbitListener(queues = "activity.queue", containerFactory = "pipelineListenerContainerFactory")
+    public Mono<Void> processActivity(Activity activity,
+                                      @Header(name = RabbitMqConfig.RETRY_ATTEMPT_HEADER, required = false) Integer retries) {
+        log.info("Received activity for processing : " + activity.getActivityId());
+        return process(activity, ActivityLane.LIVE, retries);
+    }
+
+    @RabbitListener(queues = "activity.bulk.queue", containerFactory = "bulkPipelineListenerContainerFactory")
+    public Mono<Void> processBulkActivity(Activity activity,
+                                          @Header(name = RabbitMqConfig.RETRY_ATTEMPT_HEADER, required = false) Integer retries) {
+        log.debug("Received bulk activity for processing : {}", activity.getActivityId());
+        return bulkLaneGate.run(() -> process(activity, ActivityLane.BULK, retries));
+    }
+
+    private Mono<Void> process(Activity activity, ActivityLane lane, Integer retries) {
+        laneMetrics.received(lane, activity);
+        return aiService.generateRecommendationAsync(activity)
+                // The repository is blocking, keep it off the Netty event loop
+                .publishOn(Schedulers.boundedElastic())
+                .map(recommendationRepository::save)
+                .doOnNext(saved -> log.debug("Saved recommendation for activity {}", saved.getActivityId()))
+                .doOnNext(eventRegistry::publish)
+                .doOnNext(saved -> laneMetrics.completed(lane, activity))
+                .then()
+                // Park the failure in a delay queue and ack; only a failed hand-off nacks the delivery
+                .onErrorResume(e -> retryPublisher.handleFailureAsync(activity, lane, retries, e));
+    }
+}
@@ -0,0 +1,93 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.config.RabbitMqConfig;
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.ActivityLane;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Moves a failed activity off the work queue instead of requeueing it in place: into the delay
+ * queue for its attempt while attempts remain, otherwise onto the dead-letter queue. The consumer is
+ * free again as soon as the publish returns.
+ */
+@Component
+@Slf4j
+public class ActivityRetryPublisher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final List<Duration> retryDelays;
+    private final int maxAttempts;
+    private final String deadLetterQueue;
+
+    public ActivityRetryPublisher(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+                                  @Value("${ai.retry.delays:5s,30s,2m}") List<Duration> retryDelays,
+                                  @Value("${ai.retry.max-attempts:4}") int maxAttempts,
+                                  @Value("${rabbitmq.dead-letter.queue.name:activity.dlq}") String deadLetterQueue) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.retryDelays = List.copyOf(retryDelays);
+        this.maxAttempts = maxAttempts;
+        this.deadLetterQueue = deadLetterQueue;
+    }
+
+    /**
+     * @param retries retries already made for this activity, from the x-retry-attempt header (null on
+     *                the first delivery)
+     */
+    public void handleFailure(Activity activity, ActivityLane lane, Integer retries, Throwable error) {
+        int retriesMade = retries != null ? retries : 0;
+        if (retriesMade + 1 < maxAttempts && !retryDelays.isEmpty()) {
+            Duration delay = retryDelays.get(Math.min(retriesMade, retryDelays.size() - 1));
+            log.warn("⚠️ Activity {} failed (attempt {} of {}), retrying in {}: {}", activity.getActivityId(),
+                    retriesMade + 1, maxAttempts, delay, error.getMessage());
+            rabbitTemplate.convertAndSend("", RabbitMqConfig.delayQueueName(delay), activity,
+                    headers(lane, retriesMade + 1, error));
+            meterRegistry.counter("ai.retry.scheduled", "delay", delay.toString()).increment();
+        } else {
+            log.error("❌ Activity {} failed after {} attempts, moving to dead-letter queue: {}",
+                    activity.getActivityId(), retriesMade + 1, error.getMessage());
+            rabbitTemplate.convertAndSend("", deadLetterQueue, activity, headers(lane, retriesMade + 1, error));
+            meterRegistry.counter("ai.retry.dead-lettered", "lane", lane.name().toLowerCase()).increment();
+        }
+    }
+
+    public Mono<Void> handleFailureAsync(Activity activity, ActivityLane lane, Integer retries, Throwable error) {
+        return Mono.fromRunnable(() -> handleFailure(activity, lane, retries, error))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Sends a dead-lettered activity back through the return exchange with a fresh attempt count.
+     */
+    public void replay(Activity activity, ActivityLane lane) {
+        rabbitTemplate.convertAndSend(RabbitMqConfig.RETRY_RETURN_EXCHANGE, "", activity, message -> {
+            message.getMessageProperties().setHeader(RabbitMqConfig.ORIGIN_LANE_HEADER, lane.name());
+            return message;
+        });
+    }
+
+    private static MessagePostProcessor headers(ActivityLane lane, int retries, Throwable error) {
+        String lastError = String.valueOf(error.getMessage());
+        String truncated = lastError.length() > MAX_ERROR_LENGTH ? lastError.substring(0, MAX_ERROR_LENGTH) : lastError;
+        return message -> {
+            message.getMessageProperties().setHeader(RabbitMqConfig.RETRY_ATTEMPT_HEADER, retries);
+            message.getMessageProperties().setHeader(RabbitMqConfig.ORIGIN_LANE_HEADER, lane.name());
+            message.getMessageProperties().setHeader(RabbitMqConfig.LAST_ERROR_HEADER, truncated);
+            return message;
+        };
+    }
+}
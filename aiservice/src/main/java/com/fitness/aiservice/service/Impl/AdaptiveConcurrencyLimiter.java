@@ -0,0 +1,128 @@
+package com.fitness.aiservice.service.Impl;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * AIMD concurrency limit with a non-blocking waiter queue. The limit grows by {@code 1/limit} for
+ * every healthy call that completes while the limit is saturated and is multiplied by
+ * {@code backoffRatio} on overload. Only calls that started after the previous decrease can trigger
+ * another one, so a burst of 429s from the same window backs off once.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final int maxQueued;
+
+    private final Deque<Sinks.Empty<Void>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, int maxQueued) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.backoffRatio = backoffRatio;
+        this.maxQueued = maxQueued;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Completes once a slot is held. Every successful acquire must be paired with one release call,
+     * including when the subscriber cancels after the slot was granted.
+     */
+    Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> waiter;
+            synchronized (this) {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return Mono.empty();
+                }
+                if (waiters.size() >= maxQueued) {
+                    return Mono.error(new RejectedExecutionException(
+                            "Gemini concurrency queue is full (" + maxQueued + " waiting)"));
+                }
+                waiter = Sinks.empty();
+                waiters.addLast(waiter);
+            }
+            return waiter.asMono().doOnCancel(() -> cancel(waiter));
+        });
+    }
+
+    /**
+     * Releases a slot and feeds the call outcome into the limit.
+     *
+     * @param startNanos when the call started, used to ignore stale overload signals
+     * @param overloaded whether the call was throttled, failed server-side, timed out or was too slow
+     */
+    void release(long startNanos, boolean overloaded) {
+        List<Sinks.Empty<Void>> granted;
+        synchronized (this) {
+            if (overloaded) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = System.nanoTime();
+                }
+            } else if (inFlight >= (int) limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            inFlight--;
+            granted = drain();
+        }
+        granted.forEach(Sinks.Empty::tryEmitEmpty);
+    }
+
+    /**
+     * Releases a slot without adjusting the limit, for calls that never reached the provider.
+     */
+    void releaseUnused() {
+        List<Sinks.Empty<Void>> granted;
+        synchronized (this) {
+            inFlight--;
+            granted = drain();
+        }
+        granted.forEach(Sinks.Empty::tryEmitEmpty);
+    }
+
+    private void cancel(Sinks.Empty<Void> waiter) {
+        boolean stillWaiting;
+        synchronized (this) {
+            stillWaiting = waiters.remove(waiter);
+        }
+        if (!stillWaiting) {
+            // The slot was granted concurrently with the cancel
+            releaseUnused();
+        }
+    }
+
+    private List<Sinks.Empty<Void>> drain() {
+        List<Sinks.Empty<Void>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            inFlight++;
+            granted.add(waiters.pollFirst());
+        }
+        return granted;
+    }
+
+    synchronized double getLimit() {
+        return limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueued() {
+        return waiters.size();
+    }
+}
@@ -0,0 +1,253 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.dto.ActivityScanPage;
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.BackfillJob;
+import com.fitness.aiservice.model.BackfillStatus;
+import com.fitness.aiservice.model.Recommendation;
+import com.fitness.aiservice.repository.RecommendationRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes backfill jobs on this instance. Pages of activities are fetched from activity-service in
+ * _id order and regenerated with bounded parallelism, paced by a per-job token bucket and admitted
+ * through the {@link BulkLaneGate} so live activities keep their share of Gemini. Progress is
+ * checkpointed after each page together with a lease renewal; a job whose lease lapses (instance
+ * died) is claimed again by whichever instance gets to it first.
+ */
+@Component
+@Slf4j
+public class BackfillRunner {
+
+    private final WebClient activityServiceWebClient;
+    private final ActivityAIService aiService;
+    private final RecommendationRepository recommendationRepository;
+    private final BulkLaneGate bulkLaneGate;
+    private final MongoTemplate mongoTemplate;
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, Disposable> running = new ConcurrentHashMap<>();
+
+    @Value("${ai.backfill.lease:5m}")
+    private Duration lease;
+
+    @Value("${ai.backfill.fetch-retries:5}")
+    private int fetchRetries;
+
+    public BackfillRunner(@Qualifier("activityServiceWebClient") WebClient activityServiceWebClient,
+                          ActivityAIService aiService,
+                          RecommendationRepository recommendationRepository,
+                          BulkLaneGate bulkLaneGate,
+                          MongoTemplate mongoTemplate,
+                          MeterRegistry meterRegistry) {
+        this.activityServiceWebClient = activityServiceWebClient;
+        this.aiService = aiService;
+        this.recommendationRepository = recommendationRepository;
+        this.bulkLaneGate = bulkLaneGate;
+        this.mongoTemplate = mongoTemplate;
+        this.processedCounter = meterRegistry.counter("ai.backfill.activities", "outcome", "processed");
+        this.failedCounter = meterRegistry.counter("ai.backfill.activities", "outcome", "failed");
+    }
+
+    /**
+     * Claims the job for this instance and starts it in the background.
+     *
+     * @return false if the job is not running, or another instance holds a live lease on it
+     */
+    public boolean launch(String jobId) {
+        if (running.containsKey(jobId)) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Query claimable = Query.query(Criteria.where("_id").is(jobId)
+                .and("status").is(BackfillStatus.RUNNING)
+                .orOperator(Criteria.where("leaseUntil").is(null),
+                        Criteria.where("leaseUntil").lt(now),
+                        Criteria.where("owner").is(instanceId)));
+        Update claim = new Update()
+                .set("owner", instanceId)
+                .set("leaseUntil", now.plus(lease))
+                .set("updatedAt", now);
+        BackfillJob job = mongoTemplate.findAndModify(claimable, claim,
+                FindAndModifyOptions.options().returnNew(true), BackfillJob.class);
+        if (job == null) {
+            return false;
+        }
+        log.info("Starting backfill {} after {} at {}/s with parallelism {}", jobId,
+                job.getCheckpoint(), job.getRatePerSecond(), job.getParallelism());
+        Disposable.Swap run = Disposables.swap();
+        running.put(jobId, run);
+        run.update(execute(job)
+                .doFinally(signal -> running.remove(jobId, run))
+                .subscribe(null, error -> log.error("❌ Backfill {} stopped: {}", jobId, error.getMessage())));
+        return true;
+    }
+
+    /**
+     * Cancels the job if it runs here. In-flight activities are abandoned; the checkpoint still points
+     * at the last completed page.
+     */
+    public void stop(String jobId) {
+        Disposable run = running.remove(jobId);
+        if (run != null) {
+            run.dispose();
+        }
+    }
+
+    public boolean isRunningHere(String jobId) {
+        return running.containsKey(jobId);
+    }
+
+    Mono<Void> execute(BackfillJob job) {
+        TokenBucket rateBudget = new TokenBucket(job.getRatePerSecond() * 60, job.getParallelism());
+        RunStats stats = new RunStats();
+        // A page is emitted only once processed, so the next fetch waits for it and one page is held at a time
+        return processNext(job, job.getCheckpoint(), rateBudget, stats)
+                .expand(page -> page.isHasMore()
+                        ? processNext(job, page.getNextCursor(), rateBudget, stats)
+                        : Mono.empty())
+                .then(blocking(() -> finish(job.getId(), BackfillStatus.COMPLETED, null)))
+                .onErrorResume(e -> blocking(() -> finish(job.getId(), BackfillStatus.FAILED, e.getMessage()))
+                        .then(Mono.error(e)));
+    }
+
+    private Mono<ActivityScanPage> processNext(BackfillJob job, String after, TokenBucket rateBudget, RunStats stats) {
+        return fetchPage(after, job.getPageSize())
+                .flatMap(page -> processPage(job, page, rateBudget, stats).thenReturn(page));
+    }
+
+    private Mono<ActivityScanPage> fetchPage(String after, int pageSize) {
+        return activityServiceWebClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/internal/activities/scan")
+                        .queryParamIfPresent("after", Optional.ofNullable(after))
+                        .queryParam("limit", pageSize)
+                        .build())
+                .retrieve()
+                .bodyToMono(ActivityScanPage.class)
+                .retryWhen(Retry.backoff(fetchRetries, Duration.ofSeconds(2)));
+    }
+
+    private Mono<Void> processPage(BackfillJob job, ActivityScanPage page, TokenBucket rateBudget, RunStats stats) {
+        List<Activity> activities = page.getActivities() != null ? page.getActivities() : List.of();
+        return Flux.fromIterable(activities)
+                .flatMap(activity -> regenerate(activity, rateBudget), job.getParallelism())
+                .collectList()
+                .flatMap(outcomes -> {
+                    long succeeded = outcomes.stream().filter(Boolean::booleanValue).count();
+                    long failed = outcomes.size() - succeeded;
+                    double throughput = stats.add(outcomes.size());
+                    return blocking(() -> checkpoint(job.getId(), page.getNextCursor(), succeeded, failed, throughput));
+                });
+    }
+
+    private Mono<Boolean> regenerate(Activity activity, TokenBucket rateBudget) {
+        // Only activities that reach Gemini spend the rate budget
+        Mono<Void> paced = Mono.defer(() -> Mono.delay(Duration.ofNanos(rateBudget.reserve()))).then();
+        return bulkLaneGate.run(() -> aiService.generateRecommendationAsync(activity, paced)
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(this::upsert))
+                .doOnNext(saved -> processedCounter.increment())
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    log.warn("⚠️ Backfill could not regenerate activity {}: {}", activity.getActivityId(), e.getMessage());
+                    failedCounter.increment();
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Replaces the activity's existing recommendation in place, so reprocessing never duplicates it.
+     */
+    Recommendation upsert(Recommendation recommendation) {
+        recommendationRepository.findFirstByActivityId(recommendation.getActivityId()).ifPresent(existing -> {
+            recommendation.setId(existing.getId());
+            recommendation.setCreatedAt(existing.getCreatedAt());
+        });
+        return recommendationRepository.save(recommendation);
+    }
+
+    private void checkpoint(String jobId, String checkpoint, long succeeded, long failed, double throughput) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .inc("processed", succeeded)
+                .inc("failed", failed)
+                .set("throughputPerSecond", throughput)
+                .set("leaseUntil", now.plus(lease))
+                .set("updatedAt", now);
+        if (checkpoint != null) {
+            update.set("checkpoint", checkpoint);
+        }
+        UpdateResult result = mongoTemplate.updateFirst(ownedRunning(jobId), update, BackfillJob.class);
+        if (result.getMatchedCount() == 0) {
+            // Paused, or the lease moved to another instance
+            throw new IllegalStateException("Backfill " + jobId + " is no longer owned by this instance");
+        }
+    }
+
+    private void finish(String jobId, BackfillStatus status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", status)
+                .set("lastError", error)
+                .set("leaseUntil", null)
+                .set("updatedAt", now);
+        if (status == BackfillStatus.COMPLETED) {
+            update.set("completedAt", now);
+        }
+        if (mongoTemplate.updateFirst(ownedRunning(jobId), update, BackfillJob.class).getMatchedCount() > 0) {
+            log.info("Backfill {} finished as {}", jobId, status);
+        }
+    }
+
+    private Query ownedRunning(String jobId) {
+        return Query.query(Criteria.where("_id").is(jobId)
+                .and("status").is(BackfillStatus.RUNNING)
+                .and("owner").is(instanceId));
+    }
+
+    private static Mono<Void> blocking(Runnable runnable) {
+        return Mono.fromRunnable(runnable).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    /**
+     * Throughput of the current run on this instance, in activities per second.
+     */
+    private static final class RunStats {
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong done = new AtomicLong();
+
+        double add(long count) {
+            long total = done.addAndGet(count);
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000d;
+            return seconds > 0 ? total / seconds : 0;
+        }
+    }
+}
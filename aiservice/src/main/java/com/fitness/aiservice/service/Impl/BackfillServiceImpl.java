@@ -0,0 +1,124 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.dto.BackfillRequest;
+import com.fitness.aiservice.model.BackfillJob;
+import com.fitness.aiservice.model.BackfillStatus;
+import com.fitness.aiservice.repository.BackfillJobRepository;
+import com.fitness.aiservice.service.BackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackfillServiceImpl implements BackfillService {
+
+    private final BackfillJobRepository backfillJobRepository;
+
+    private final BackfillRunner backfillRunner;
+
+    private final MongoTemplate mongoTemplate;
+
+    // Bulk share of ai.gemini.requests-per-minute: 60 rpm * 0.25 / 60s
+    @Value("${ai.backfill.rate-per-second:0.25}")
+    private double defaultRatePerSecond;
+
+    // The bulk lane admits floor(concurrency limit * share) at a time, 1 at the initial limit of 4
+    @Value("${ai.backfill.parallelism:1}")
+    private int defaultParallelism;
+
+    @Value("${ai.backfill.page-size:200}")
+    private int defaultPageSize;
+
+    @Override
+    public BackfillJob startBackfill(BackfillRequest request) {
+        if (!backfillJobRepository.findByStatus(BackfillStatus.RUNNING).isEmpty()) {
+            throw new RuntimeException("A backfill is already running");
+        }
+        BackfillRequest overrides = request != null ? request : new BackfillRequest();
+        LocalDateTime now = LocalDateTime.now();
+        BackfillJob job = backfillJobRepository.save(BackfillJob.builder()
+                .status(BackfillStatus.RUNNING)
+                .ratePerSecond(positive(overrides.getRatePerSecond(), defaultRatePerSecond))
+                .parallelism((int) positive(overrides.getParallelism(), defaultParallelism))
+                .pageSize((int) positive(overrides.getPageSize(), defaultPageSize))
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Created backfill job: {}", job.getId());
+        backfillRunner.launch(job.getId());
+        return getBackfill(job.getId());
+    }
+
+    @Override
+    public BackfillJob pauseBackfill(String jobId) {
+        // Only the status fields are written, so progress the owner checkpoints meanwhile is kept
+        Query running = Query.query(Criteria.where("_id").is(jobId).and("status").is(BackfillStatus.RUNNING));
+        Update pause = new Update()
+                .set("status", BackfillStatus.PAUSED)
+                .set("leaseUntil", null)
+                .set("updatedAt", LocalDateTime.now());
+        if (mongoTemplate.updateFirst(running, pause, BackfillJob.class).getMatchedCount() == 0) {
+            getBackfill(jobId);
+            throw new RuntimeException("Backfill " + jobId + " is not running");
+        }
+        // The owning instance stops at its next checkpoint if the job runs elsewhere
+        backfillRunner.stop(jobId);
+        return getBackfill(jobId);
+    }
+
+    @Override
+    public BackfillJob resumeBackfill(String jobId) {
+        Query resumable = Query.query(Criteria.where("_id").is(jobId)
+                .and("status").in(BackfillStatus.PAUSED, BackfillStatus.FAILED));
+        Update resume = new Update()
+                .set("status", BackfillStatus.RUNNING)
+                .set("lastError", null)
+                .set("updatedAt", LocalDateTime.now());
+        if (mongoTemplate.updateFirst(resumable, resume, BackfillJob.class).getMatchedCount() == 0) {
+            BackfillJob job = getBackfill(jobId);
+            throw new RuntimeException("Backfill " + jobId + " cannot be resumed from " + job.getStatus());
+        }
+        backfillRunner.launch(jobId);
+        return getBackfill(jobId);
+    }
+
+    @Override
+    public BackfillJob getBackfill(String jobId) {
+        return backfillJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("No backfill found for : " + jobId));
+    }
+
+    @Override
+    public List<BackfillJob> getBackfills() {
+        return backfillJobRepository.findAllByOrderByStartedAtDesc();
+    }
+
+    /**
+     * Picks up running jobs nobody is working on: after a restart, or when the owning instance died
+     * and its lease ran out.
+     */
+    @Scheduled(initialDelayString = "${ai.backfill.claim-initial-delay-ms:15000}",
+            fixedDelayString = "${ai.backfill.claim-interval-ms:60000}")
+    public void claimOrphanedBackfills() {
+        for (BackfillJob job : backfillJobRepository.findByStatus(BackfillStatus.RUNNING)) {
+            if (!backfillRunner.isRunningHere(job.getId()) && backfillRunner.launch(job.getId())) {
+                log.info("Resumed backfill {} from checkpoint {}", job.getId(), job.getCheckpoint());
+            }
+        }
+    }
+
+    private static double positive(Number value, double fallback) {
+        return value != null && value.doubleValue() > 0 ? value.doubleValue() : fallback;
+    }
+}
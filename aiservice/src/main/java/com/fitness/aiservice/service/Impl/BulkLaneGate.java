@@ -0,0 +1,91 @@
+package com.fitness.aiservice.service.Impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caps bulk-lane activities in flight at a share of the Gemini concurrency limit, so the rest of
+ * the limit stays reserved for the live lane. The cap follows the adaptive limit as it moves, and
+ * bulk work waits without blocking a thread; the unacked deliveries keep the rest of the bulk
+ * queue on the broker.
+ */
+@Component
+public class BulkLaneGate {
+
+    private final GeminiGovernor governor;
+    private final double bulkShare;
+    private final Deque<Sinks.Empty<Void>> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    public BulkLaneGate(GeminiGovernor governor, MeterRegistry meterRegistry,
+                        @Value("${ai.lanes.bulk.share:0.25}") double bulkShare) {
+        this.governor = governor;
+        this.bulkShare = bulkShare;
+        Gauge.builder("ai.lane.bulk.capacity", this, BulkLaneGate::capacity).register(meterRegistry);
+        Gauge.builder("ai.lane.bulk.inflight", this, BulkLaneGate::getInFlight).register(meterRegistry);
+        Gauge.builder("ai.lane.bulk.waiting", this, BulkLaneGate::getWaiting).register(meterRegistry);
+    }
+
+    public <T> Mono<T> run(Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            Mono<T> admittedWork = Mono.defer(work).doFinally(signal -> release());
+            Sinks.Empty<Void> waiter;
+            synchronized (this) {
+                if (inFlight < capacity()) {
+                    inFlight++;
+                    return admittedWork;
+                }
+                waiter = Sinks.empty();
+                waiters.addLast(waiter);
+            }
+            return waiter.asMono()
+                    .doOnCancel(() -> abandon(waiter))
+                    .then(admittedWork);
+        });
+    }
+
+    int capacity() {
+        return Math.max(1, (int) Math.floor(governor.getConcurrencyLimit() * bulkShare));
+    }
+
+    private void release() {
+        List<Sinks.Empty<Void>> admitted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            while (inFlight < capacity() && !waiters.isEmpty()) {
+                inFlight++;
+                admitted.add(waiters.pollFirst());
+            }
+        }
+        admitted.forEach(Sinks.Empty::tryEmitEmpty);
+    }
+
+    private void abandon(Sinks.Empty<Void> waiter) {
+        boolean stillWaiting;
+        synchronized (this) {
+            stillWaiting = waiters.remove(waiter);
+        }
+        if (!stillWaiting) {
+            // Admitted concurrently with the cancel
+            release();
+        }
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getWaiting() {
+        return waiters.size();
+    }
+}
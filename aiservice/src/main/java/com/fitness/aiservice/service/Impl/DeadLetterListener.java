@@ -0,0 +1,42 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.config.RabbitMqConfig;
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.ActivityLane;
+import com.fitness.aiservice.model.DeadLetteredActivity;
+import com.fitness.aiservice.repository.DeadLetteredActivityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persists dead-lettered activities so they survive broker restarts and can be replayed in bulk.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterListener {
+
+    private final DeadLetteredActivityRepository deadLetteredActivityRepository;
+
+    @RabbitListener(queues = "activity.dlq")
+    public void storeDeadLetter(Activity activity,
+                                @Header(name = RabbitMqConfig.ORIGIN_LANE_HEADER, required = false) String lane,
+                                @Header(name = RabbitMqConfig.RETRY_ATTEMPT_HEADER, required = false) Integer attempts,
+                                @Header(name = RabbitMqConfig.LAST_ERROR_HEADER, required = false) String lastError) {
+        log.info("Storing dead-lettered activity : {}", activity.getActivityId());
+        deadLetteredActivityRepository.save(DeadLetteredActivity.builder()
+                .activityId(activity.getActivityId())
+                .userId(activity.getUserId())
+                .lane(lane != null ? ActivityLane.valueOf(lane) : ActivityLane.LIVE)
+                .attempts(attempts)
+                .lastError(lastError)
+                .activity(activity)
+                .deadLetteredAt(LocalDateTime.now())
+                .build());
+    }
+}
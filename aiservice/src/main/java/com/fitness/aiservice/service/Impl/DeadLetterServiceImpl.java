@@ -0,0 +1,56 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.dto.DeadLetterReplayResponse;
+import com.fitness.aiservice.model.ActivityLane;
+import com.fitness.aiservice.model.DeadLetteredActivity;
+import com.fitness.aiservice.repository.DeadLetteredActivityRepository;
+import com.fitness.aiservice.service.DeadLetterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterServiceImpl implements DeadLetterService {
+
+    private final DeadLetteredActivityRepository deadLetteredActivityRepository;
+
+    private final ActivityRetryPublisher retryPublisher;
+
+    @Value("${ai.retry.replay.max-batch-size:500}")
+    private int maxReplayBatchSize;
+
+    @Override
+    public List<DeadLetteredActivity> getDeadLetters(int limit) {
+        return deadLetteredActivityRepository.findAllByOrderByDeadLetteredAtAsc(PageRequest.of(0, clamp(limit)));
+    }
+
+    @Override
+    public DeadLetterReplayResponse replay(int limit) {
+        List<DeadLetteredActivity> deadLetters = getDeadLetters(limit);
+        int replayed = 0;
+        for (DeadLetteredActivity deadLetter : deadLetters) {
+            // Replays go through the bulk lane so a large replay cannot crowd out live activities
+            retryPublisher.replay(deadLetter.getActivity(), ActivityLane.BULK);
+            deadLetteredActivityRepository.deleteById(deadLetter.getActivityId());
+            replayed++;
+        }
+        log.info("Replayed {} dead-lettered activities", replayed);
+        return DeadLetterReplayResponse.builder()
+                .replayed(replayed)
+                .remaining(deadLetteredActivityRepository.count())
+                .build();
+    }
+
+    private int clamp(int limit) {
+        if (limit <= 0) {
+            throw new RuntimeException("limit must be positive");
+        }
+        return Math.min(limit, maxReplayBatchSize);
+    }
+}
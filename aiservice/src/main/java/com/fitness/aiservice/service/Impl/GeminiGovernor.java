@@ -0,0 +1,169 @@
+package com.fitness.aiservice.service.Impl;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Client-side governor for Gemini calls: an adaptive concurrency slot, then a rate-limit token,
+ * then the call itself under a per-call deadline. 429s, 5xx, timeouts and calls slower than the
+ * latency threshold shrink the concurrency limit; healthy calls grow it back.
+ */
+@Slf4j
+@Component
+public class GeminiGovernor {
+
+    enum Outcome { SUCCESS, THROTTLED, SERVER_ERROR, TIMEOUT, CLIENT_ERROR, CANCELLED }
+
+    private final TokenBucket tokenBucket;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration callTimeout;
+    private final long latencyThresholdNanos;
+    private final Timer latency;
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+    public GeminiGovernor(MeterRegistry meterRegistry,
+                          @Value("${ai.gemini.requests-per-minute:60}") double requestsPerMinute,
+                          @Value("${ai.gemini.burst:10}") int burst,
+                          @Value("${ai.gemini.concurrency.initial:4}") int initialConcurrency,
+                          @Value("${ai.gemini.concurrency.min:1}") int minConcurrency,
+                          @Value("${ai.gemini.concurrency.max:32}") int maxConcurrency,
+                          @Value("${ai.gemini.concurrency.backoff-ratio:0.7}") double backoffRatio,
+                          @Value("${ai.gemini.concurrency.max-queued:500}") int maxQueued,
+                          @Value("${ai.gemini.latency-threshold:30s}") Duration latencyThreshold,
+                          @Value("${ai.gemini.call-timeout:60s}") Duration callTimeout) {
+        this.tokenBucket = new TokenBucket(requestsPerMinute, burst);
+        this.limiter = new AdaptiveConcurrencyLimiter(
+                initialConcurrency, minConcurrency, maxConcurrency, backoffRatio, maxQueued);
+        this.callTimeout = callTimeout;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+
+        this.latency = Timer.builder("ai.gemini.latency")
+                .description("Gemini call latency, excluding time spent waiting for a slot or token")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("ai.gemini.calls")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("ai.gemini.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("ai.gemini.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("ai.gemini.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .register(meterRegistry);
+        Gauge.builder("ai.gemini.rate.tokens", tokenBucket, TokenBucket::available)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return executeMany(() -> call.get().flux()).singleOrEmpty();
+    }
+
+    /**
+     * Streaming variant: the slot is held until the stream terminates, and the deadline applies to
+     * the first element and to every gap between elements.
+     */
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            AtomicBoolean acquired = new AtomicBoolean();
+            AtomicReference<Outcome> outcome = new AtomicReference<>(Outcome.CANCELLED);
+            long[] startNanos = {0};
+            // Released before the result is signalled downstream, exactly once
+            Runnable release = () -> {
+                if (acquired.compareAndSet(true, false)) {
+                    onComplete(outcome.get(), startNanos[0]);
+                }
+            };
+
+            return limiter.acquire()
+                    .doOnSuccess(ignored -> acquired.set(true))
+                    .then(Mono.defer(() -> {
+                        long waitNanos = tokenBucket.reserve();
+                        return waitNanos == 0 ? Mono.<Void>empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+                    }))
+                    .thenMany(Flux.defer(() -> {
+                        startNanos[0] = System.nanoTime();
+                        return call.get().timeout(callTimeout);
+                    }))
+                    .doOnComplete(() -> outcome.set(Outcome.SUCCESS))
+                    .doOnError(e -> outcome.set(classify(e)))
+                    .doOnTerminate(release)
+                    .doOnCancel(release);
+        });
+    }
+
+    private void onComplete(Outcome outcome, long startNanos) {
+        if (startNanos == 0) {
+            // Cancelled or rejected while waiting for a rate-limit token
+            limiter.releaseUnused();
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        latency.record(elapsed, TimeUnit.NANOSECONDS);
+        outcomes.get(outcome).increment();
+
+        boolean overloaded = switch (outcome) {
+            case THROTTLED, SERVER_ERROR, TIMEOUT -> true;
+            case SUCCESS -> elapsed > latencyThresholdNanos;
+            case CLIENT_ERROR, CANCELLED -> false;
+        };
+        limiter.release(startNanos, overloaded);
+        if (overloaded) {
+            log.warn("Gemini call {} after {} ms, concurrency limit now {}",
+                    outcome, TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.1f", limiter.getLimit()));
+        }
+    }
+
+    /**
+     * Whether the error means the provider is throttling, failing or unreachable, as opposed to a
+     * bad request or local back-pressure.
+     */
+    public static boolean isProviderFailure(Throwable error) {
+        return switch (classify(error)) {
+            case THROTTLED, SERVER_ERROR, TIMEOUT -> true;
+            default -> false;
+        };
+    }
+
+    static Outcome classify(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return Outcome.TIMEOUT;
+        }
+        if (error instanceof RejectedExecutionException || error instanceof CallNotPermittedException) {
+            // Refused locally; Gemini never saw the call
+            return Outcome.CLIENT_ERROR;
+        }
+        if (error instanceof WebClientResponseException responseException) {
+            if (responseException.getStatusCode().value() == 429) {
+                return Outcome.THROTTLED;
+            }
+            return responseException.getStatusCode().is5xxServerError() ? Outcome.SERVER_ERROR : Outcome.CLIENT_ERROR;
+        }
+        // Connection failures look like an unavailable provider
+        return Outcome.SERVER_ERROR;
+    }
+
+    double getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+}
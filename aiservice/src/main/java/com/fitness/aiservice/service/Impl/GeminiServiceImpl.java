@@ -1,44 +1,115 @@
 package com.fitness.aiservice.service.Impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fitness.aiservice.service.GeminiService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
 @Service
 public class GeminiServiceImpl implements GeminiService {
 
+    private static final ParameterizedTypeReference<ServerSentEvent<JsonNode>> CHUNK_EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final String BREAKER_NAME = "gemini";
+
     private final WebClient webClient;
 
+    private final GeminiGovernor governor;
+
+    private final ReactiveCircuitBreaker circuitBreaker;
+
+    // Null when the breaker is not backed by Resilience4j, e.g. in tests
+    private final CircuitBreakerRegistry breakerRegistry;
+
     @Value("${gemini.api.url}")
     private String geminiApiUrl;
 
+    @Value("${gemini.api.stream-url:}")
+    private String geminiStreamUrl;
+
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
-    public GeminiServiceImpl(WebClient.Builder webClientBuilder) {
+    public GeminiServiceImpl(WebClient.Builder webClientBuilder, GeminiGovernor governor,
+                             ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory) {
         this.webClient = webClientBuilder.build();
+        this.governor = governor;
+        this.circuitBreaker = circuitBreakerFactory.create(BREAKER_NAME);
+        this.breakerRegistry = circuitBreakerFactory instanceof ReactiveResilience4JCircuitBreakerFactory resilience4j
+                ? resilience4j.getCircuitBreakerRegistry()
+                : null;
     }
 
+    @Override
     public String getAnswer(String question) {
-        Map<String, Object> requestBody = Map.of(
+        return getAnswerAsync(question).block();
+    }
+
+    /**
+     * The breaker wraps only the exchange, inside the governor, so its timers and failure counts see
+     * Gemini's behaviour and not the time spent queued for a slot or a token. An open breaker is
+     * checked before the governor so fallbacks do not wait behind the rate limit.
+     */
+    @Override
+    public Mono<String> getAnswerAsync(String question) {
+        return rejectIfOpen().then(governor.execute(() -> circuitBreaker.run(webClient.post()
+                .uri(geminiApiUrl + geminiApiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(createRequestBody(question))
+                .retrieve()
+                .bodyToMono(String.class), Mono::error)));
+    }
+
+    @Override
+    public Flux<String> streamAnswer(String question) {
+        // Each server-sent event carries a partial GenerateContentResponse, decoded straight to a tree
+        return rejectIfOpen().thenMany(governor.executeMany(() -> circuitBreaker.run(webClient.post()
+                .uri(geminiStreamUrl + geminiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(createRequestBody(question))
+                .retrieve()
+                .bodyToFlux(CHUNK_EVENT)
+                .mapNotNull(ServerSentEvent::data)
+                .mapNotNull(chunk -> chunk.path("candidates").path(0)
+                        .path("content").path("parts").path(0)
+                        .path("text").textValue()), Flux::error)));
+    }
+
+    private Mono<Void> rejectIfOpen() {
+        return Mono.defer(() -> {
+            CircuitBreaker breaker = breakerRegistry != null ? breakerRegistry.find(BREAKER_NAME).orElse(null) : null;
+            if (breaker != null && (breaker.getState() == CircuitBreaker.State.OPEN
+                    || breaker.getState() == CircuitBreaker.State.FORCED_OPEN)) {
+                return Mono.error(CallNotPermittedException.createCallNotPermittedException(breaker));
+            }
+            return Mono.empty();
+        });
+    }
+
+    private Map<String, Object> createRequestBody(String question) {
+        return Map.of(
                 "contents", new Object[]{
                         Map.of("parts", new Object[]{
                                 Map.of("text", question)
                         })
                 }
         );
-
-        String response = webClient.post()
-                .uri(geminiApiUrl + geminiApiKey)
-                .header("Content-Type", "application/json")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-        return response;
     }
 }
@@ -0,0 +1,107 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.Recommendation;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Collects activities that missed the recommendation cache into batches of up to {@code maxSize},
+ * or whatever arrived within {@code maxWait}, and hands each batch to the handler. The handler is
+ * responsible for completing every {@link Pending#result()}; anything it leaves open when it fails
+ * is completed with that error so no caller waits forever.
+ * <p>
+ * Batches are only cut when a handler slot is free, so slow Gemini calls hold activities in the
+ * queue instead of overflowing the buffer. Should the pipeline still terminate, the activities it
+ * held are failed and a fresh pipeline takes over; every result also carries its own timeout.
+ */
+@Slf4j
+final class RecommendationBatcher {
+
+    record Pending(Activity activity, String featureKey, Sinks.One<Recommendation> result) {
+    }
+
+    private static final Duration EMIT_RETRY = Duration.ofMillis(100);
+
+    private final int maxSize;
+    private final Duration maxWait;
+    private final int maxConcurrentBatches;
+    private final Duration resultTimeout;
+    private final Function<List<Pending>, Mono<Void>> batchHandler;
+
+    private volatile Sinks.Many<Pending> queue;
+    private volatile Disposable subscription;
+    private volatile boolean stopped;
+
+    RecommendationBatcher(int maxSize, Duration maxWait, int maxConcurrentBatches, Duration resultTimeout,
+                          Function<List<Pending>, Mono<Void>> batchHandler) {
+        this.maxSize = maxSize;
+        this.maxWait = maxWait;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        this.resultTimeout = resultTimeout;
+        this.batchHandler = batchHandler;
+        start();
+    }
+
+    private synchronized void start() {
+        if (stopped) {
+            return;
+        }
+        Sinks.Many<Pending> next = Sinks.many().unicast().onBackpressureBuffer();
+        queue = next;
+        subscription = next.asFlux()
+                // fair backpressure: a batch is only emitted once flatMap can take it
+                .bufferTimeout(maxSize, maxWait, true)
+                .flatMap(batch -> Mono.defer(() -> batchHandler.apply(batch))
+                        .onErrorResume(e -> {
+                            log.error("❌ Recommendation batch of {} failed: {}", batch.size(), e.getMessage());
+                            batch.forEach(pending -> pending.result().tryEmitError(e));
+                            return Mono.empty();
+                        }), maxConcurrentBatches)
+                // Activities still queued or buffered when the pipeline dies
+                .doOnDiscard(Pending.class, pending -> pending.result().tryEmitError(
+                        new IllegalStateException("Recommendation batcher restarted")))
+                .subscribe(null, error -> restart(next, error));
+    }
+
+    private synchronized void restart(Sinks.Many<Pending> failed, Throwable error) {
+        if (queue != failed) {
+            return;
+        }
+        log.error("❌ Recommendation batcher stopped, restarting: {}", error.getMessage());
+        failed.tryEmitComplete();
+        start();
+    }
+
+    Mono<Recommendation> submit(Activity activity, String featureKey) {
+        return Mono.defer(() -> {
+                    Sinks.One<Recommendation> result = Sinks.one();
+                    try {
+                        queue.emitNext(new Pending(activity, featureKey, result),
+                                Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY));
+                    } catch (Sinks.EmissionException e) {
+                        return Mono.error(new IllegalStateException("Recommendation batcher is not accepting work", e));
+                    }
+                    return result.asMono();
+                })
+                .timeout(resultTimeout, Mono.defer(() -> Mono.error(new TimeoutException(
+                        "No recommendation for activity " + activity.getActivityId() + " within " + resultTimeout))));
+    }
+
+    void shutdown() {
+        Disposable current;
+        synchronized (this) {
+            stopped = true;
+            current = subscription;
+        }
+        queue.tryEmitComplete();
+        current.dispose();
+    }
+}
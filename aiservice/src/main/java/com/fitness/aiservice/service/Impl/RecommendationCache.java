@@ -0,0 +1,104 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.Recommendation;
+import com.fitness.aiservice.model.RecommendationTemplate;
+import com.fitness.aiservice.repository.RecommendationTemplateRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Two-tier store of recommendation templates keyed by {@link ActivityFeatureKey}: a bounded
+ * Caffeine tier in front of the {@code recommendation_template} collection. A Mongo hit is promoted
+ * to memory. Lookups and stores never fail the caller; a Mongo error is treated as a miss.
+ */
+@Slf4j
+@Component
+public class RecommendationCache {
+
+    private final Cache<String, RecommendationTemplate> memoryTier;
+    private final RecommendationTemplateRepository templateRepository;
+    private final Counter memoryHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+
+    @Value("${ai.recommendation-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.recommendation-cache.duration-band-minutes:10}")
+    private int durationBandMinutes;
+
+    @Value("${ai.recommendation-cache.calorie-band:50}")
+    private int calorieBand;
+
+    // Bump when the prompt changes so templates written for the old prompt stop matching
+    @Value("${ai.prompt.version:}")
+    private String promptVersion;
+
+    public RecommendationCache(Cache<String, RecommendationTemplate> recommendationTemplateCache,
+                               RecommendationTemplateRepository templateRepository,
+                               MeterRegistry meterRegistry) {
+        this.memoryTier = recommendationTemplateCache;
+        this.templateRepository = templateRepository;
+        this.memoryHits = Counter.builder("ai.recommendation.cache")
+                .tag("result", "memory-hit")
+                .register(meterRegistry);
+        this.mongoHits = Counter.builder("ai.recommendation.cache")
+                .tag("result", "mongo-hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("ai.recommendation.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String keyFor(Activity activity) {
+        String featureKey = ActivityFeatureKey.of(activity, durationBandMinutes, calorieBand);
+        return promptVersion == null || promptVersion.isBlank() ? featureKey : promptVersion + "|" + featureKey;
+    }
+
+    /**
+     * Returns the cached recommendation re-personalized for this activity, if one exists.
+     * May hit Mongo, so reactive callers must run it on a blocking-capable scheduler.
+     */
+    public Optional<Recommendation> lookup(String featureKey, Activity activity) {
+        RecommendationTemplate template = memoryTier.getIfPresent(featureKey);
+        if (template != null) {
+            memoryHits.increment();
+            return Optional.of(template.personalize(activity));
+        }
+
+        try {
+            Optional<RecommendationTemplate> stored = templateRepository.findById(featureKey);
+            if (stored.isPresent()) {
+                mongoHits.increment();
+                memoryTier.put(featureKey, stored.get());
+                return Optional.of(stored.get().personalize(activity));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Recommendation template lookup failed for {}: {}", featureKey, e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void store(String featureKey, Recommendation recommendation) {
+        RecommendationTemplate template = RecommendationTemplate.from(featureKey, recommendation);
+        memoryTier.put(featureKey, template);
+        try {
+            templateRepository.save(template);
+        } catch (DataAccessException e) {
+            log.warn("Could not persist recommendation template {}: {}", featureKey, e.getMessage());
+        }
+    }
+}
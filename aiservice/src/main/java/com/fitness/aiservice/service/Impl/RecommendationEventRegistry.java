@@ -0,0 +1,111 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Recommendation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process subscriptions for recommendations as they are saved, keyed by activityId (one-shot) and
+ * by userId (continuous). Entries exist only while somebody is subscribed, and every user
+ * subscriber gets its own bounded buffer so a slow client drops old events instead of growing memory.
+ * Subscriptions are local to the instance that consumed the activity message.
+ */
+@Slf4j
+@Component
+public class RecommendationEventRegistry {
+
+    private record ActivityWaiter(Sinks.One<Recommendation> sink, AtomicInteger subscribers) {
+    }
+
+    private record UserStream(Sinks.Many<Recommendation> sink, AtomicInteger subscribers) {
+    }
+
+    private final Map<String, ActivityWaiter> activityWaiters = new ConcurrentHashMap<>();
+    private final Map<String, UserStream> userStreams = new ConcurrentHashMap<>();
+
+    @Value("${ai.events.user-buffer-size:32}")
+    private int userBufferSize;
+
+    public RecommendationEventRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("ai.recommendation.subscriptions", activityWaiters, Map::size)
+                .tag("key", "activity")
+                .register(meterRegistry);
+        Gauge.builder("ai.recommendation.subscriptions", userStreams, Map::size)
+                .tag("key", "user")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers for the activity's recommendation, then runs the store lookup, and only waits if the
+     * lookup comes back empty. A recommendation saved between the two is still delivered because the
+     * waiter was registered first and the sink replays its value.
+     */
+    public Mono<Recommendation> awaitActivity(String activityId, Mono<Recommendation> stored, Duration timeout) {
+        return Mono.defer(() -> {
+            ActivityWaiter waiter = activityWaiters.compute(activityId, (id, existing) -> {
+                ActivityWaiter registered = existing != null ? existing
+                        : new ActivityWaiter(Sinks.one(), new AtomicInteger());
+                registered.subscribers().incrementAndGet();
+                return registered;
+            });
+            return stored
+                    .switchIfEmpty(waiter.sink().asMono().timeout(timeout, Mono.empty()))
+                    .doFinally(signal -> activityWaiters.computeIfPresent(activityId, (id, current) ->
+                            current == waiter && current.subscribers().decrementAndGet() == 0 ? null : current));
+        });
+    }
+
+    /**
+     * Subscribers are counted when they register rather than when they reach the sink, so one that has
+     * registered but not yet subscribed keeps the stream alive while another subscriber is cancelling.
+     */
+    public Flux<Recommendation> userRecommendations(String userId) {
+        return Flux.defer(() -> {
+            UserStream stream = userStreams.compute(userId, (id, existing) -> {
+                UserStream registered = existing != null ? existing
+                        : new UserStream(Sinks.many().multicast().directBestEffort(), new AtomicInteger());
+                registered.subscribers().incrementAndGet();
+                return registered;
+            });
+            return stream.sink().asFlux()
+                    .onBackpressureBuffer(userBufferSize, dropped ->
+                            log.debug("Dropped recommendation {} for slow subscriber of user {}",
+                                    dropped.getActivityId(), userId), BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> userStreams.computeIfPresent(userId, (id, current) ->
+                            current == stream && current.subscribers().decrementAndGet() == 0 ? null : current));
+        });
+    }
+
+    public void publish(Recommendation recommendation) {
+        ActivityWaiter activityWaiter = activityWaiters.remove(recommendation.getActivityId());
+        if (activityWaiter != null) {
+            activityWaiter.sink().tryEmitValue(recommendation);
+        }
+        UserStream userStream = userStreams.get(recommendation.getUserId());
+        if (userStream == null) {
+            return;
+        }
+        // Runs after the save inside the listener pipelines, so a failed fan-out is logged, never thrown.
+        // Emissions are serialized per stream so concurrent consumers cannot fail each other.
+        Sinks.EmitResult result;
+        synchronized (userStream) {
+            result = userStream.sink().tryEmitNext(recommendation);
+        }
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("⚠️ Could not push recommendation {} to streams of user {}: {}",
+                    recommendation.getActivityId(), recommendation.getUserId(), result);
+        }
+    }
+}
@@ -5,8 +5,13 @@ import com.fitness.aiservice.repository.RecommendationRepository;
 import com.fitness.aiservice.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.List;
 
 @Service
@@ -16,6 +21,14 @@ public class RecommendationServiceImpl implements RecommendationService {
 
     private final RecommendationRepository recommendationRepository;
 
+    private final RecommendationEventRegistry eventRegistry;
+
+    @Value("${ai.events.activity-timeout:60s}")
+    private Duration activityTimeout;
+
+    @Value("${ai.events.user-stream-timeout:30m}")
+    private Duration userStreamTimeout;
+
     @Override
     public List<Recommendation> getUserRecommendation(String userId) {
         log.info("Recommendation for User Id: {}", userId);
@@ -28,4 +41,20 @@ public class RecommendationServiceImpl implements RecommendationService {
         return recommendationRepository.findByActivityId(activityId)
                 .orElseThrow(() -> new RuntimeException("No recommendation found for : " + activityId));
     }
+
+    @Override
+    public Mono<Recommendation> awaitActivityRecommendation(String activityId) {
+        log.info("Awaiting recommendation for Activity Id: {}", activityId);
+        Mono<Recommendation> stored = Mono.fromCallable(() -> recommendationRepository.findByActivityId(activityId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty);
+        return eventRegistry.awaitActivity(activityId, stored, activityTimeout);
+    }
+
+    @Override
+    public Flux<Recommendation> streamUserRecommendations(String userId) {
+        log.info("Streaming recommendations for User Id: {}", userId);
+        return eventRegistry.userRecommendations(userId)
+                .take(userStreamTimeout);
+    }
 }
@@ -0,0 +1,184 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.Recommendation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-process recommendations built from per-type reference ranges and the metric keys the app is
+ * known to send. Used for trivial activities, when the Gemini circuit breaker is open, and when a
+ * Gemini response cannot be parsed. Output follows the same section layout as parsed AI responses.
+ */
+@Component
+public class RuleBasedRecommendationEngine {
+
+    /**
+     * Typical session length and energy expenditure per activity type.
+     */
+    enum TypeProfile {
+        WALKING(20, 90, 3, 6, "Brisk Walk: 30 minutes at a pace where talking is slightly harder",
+                "Hill Walk: Add short inclines to raise intensity without impact"),
+        RUNNING(20, 90, 8, 15, "Interval Run: 6 x 400m fast with 90 seconds easy jogging between",
+                "Easy Long Run: Extend your longest run by about 10% at a conversational pace"),
+        CYCLING(30, 150, 6, 14, "Cadence Drills: 5 x 2 minutes at high cadence with easy spinning between",
+                "Endurance Ride: A steady ride 20 minutes longer than usual"),
+        SWIMMING(20, 75, 7, 13, "Technique Set: 8 x 50m focusing on stroke length",
+                "Pull Set: 4 x 100m with a pull buoy to build upper-body endurance"),
+        WEIGHT_TRAINING(30, 90, 3, 8, "Compound Lifts: Squat, deadlift and press, 3 x 5 at a controlled tempo",
+                "Accessory Circuit: Core and single-leg work for balance"),
+        YOGA(20, 90, 2, 5, "Flow Session: 30 minutes of vinyasa to build strength and mobility",
+                "Restorative Practice: Long holds to support recovery"),
+        CARDIO(20, 60, 7, 13, "HIIT: 10 rounds of 30 seconds hard, 30 seconds easy",
+                "Steady State: 40 minutes at a moderate, sustainable effort"),
+        STRETCHING(10, 45, 1, 4, "Mobility Routine: Hips, hamstrings and thoracic spine, 15 minutes",
+                "Dynamic Warm-up: Leg swings and arm circles before your next workout"),
+        OTHER(20, 90, 3, 12, "Active Recovery: 30 minutes of light movement",
+                "Strength Basics: A short full-body bodyweight session");
+
+        private final int minMinutes;
+        private final int maxMinutes;
+        private final double minCaloriesPerMinute;
+        private final double maxCaloriesPerMinute;
+        private final List<String> suggestions;
+
+        TypeProfile(int minMinutes, int maxMinutes, double minCaloriesPerMinute, double maxCaloriesPerMinute,
+                    String... suggestions) {
+            this.minMinutes = minMinutes;
+            this.maxMinutes = maxMinutes;
+            this.minCaloriesPerMinute = minCaloriesPerMinute;
+            this.maxCaloriesPerMinute = maxCaloriesPerMinute;
+            this.suggestions = List.of(suggestions);
+        }
+
+        static TypeProfile of(String type) {
+            if (type == null) {
+                return OTHER;
+            }
+            try {
+                return valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return OTHER;
+            }
+        }
+    }
+
+    private static final int HIGH_HEART_RATE = 170;
+    private static final int LOW_HEART_RATE = 100;
+    private static final double SLOW_RUNNING_PACE = 7.0;
+
+    @Value("${ai.rules.trivial-max-minutes:10}")
+    private int trivialMaxMinutes;
+
+    @Value("${ai.rules.trivial-max-calories:50}")
+    private int trivialMaxCalories;
+
+    /**
+     * Activities too short or too light to be worth an LLM call. A missing duration or calorie count
+     * is unknown rather than small, so only a known value under its threshold makes one trivial.
+     */
+    public boolean isTrivial(Activity activity) {
+        return (activity.getDuration() != null && activity.getDuration() <= trivialMaxMinutes)
+                || (activity.getCaloriesBurned() != null && activity.getCaloriesBurned() <= trivialMaxCalories);
+    }
+
+    public Recommendation recommend(Activity activity) {
+        TypeProfile profile = TypeProfile.of(activity.getType());
+        String typeName = profile.name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        int duration = activity.getDuration() == null ? 0 : activity.getDuration();
+        int calories = activity.getCaloriesBurned() == null ? 0 : activity.getCaloriesBurned();
+        Map<String, Double> metrics = normalizeMetrics(activity.getAdditionalMetrics());
+
+        List<String> improvements = new ArrayList<>();
+        List<String> safety = new ArrayList<>();
+        StringBuilder analysis = new StringBuilder();
+
+        if (duration < profile.minMinutes) {
+            analysis.append(String.format("Overall:A short %d minute %s session.", duration, typeName));
+            improvements.add(String.format("Duration: Build towards %d-%d minutes for a typical %s session",
+                    profile.minMinutes, profile.maxMinutes, typeName));
+        } else if (duration > profile.maxMinutes) {
+            analysis.append(String.format("Overall:A long %d minute %s session.", duration, typeName));
+            improvements.add("Recovery: Plan an easier day after long sessions like this one");
+        } else {
+            analysis.append(String.format("Overall:A %d minute %s session within the typical range.", duration, typeName));
+        }
+
+        Double pace = metrics.get("pace");
+        if (pace != null) {
+            analysis.append(String.format("\n\nPace:Average pace of %.1f.", pace));
+            if (profile == TypeProfile.RUNNING && pace > SLOW_RUNNING_PACE) {
+                improvements.add("Pace: Add one interval session a week to bring your pace down");
+            }
+        }
+
+        Double heartRate = metrics.getOrDefault("heartrate", metrics.get("avgheartrate"));
+        if (heartRate != null) {
+            analysis.append(String.format("\n\nHeart Rate:Average heart rate of %.0f bpm.", heartRate));
+            if (heartRate >= HIGH_HEART_RATE) {
+                safety.add("Your heart rate was high; keep most sessions at a conversational effort");
+            } else if (heartRate < LOW_HEART_RATE && profile.maxCaloriesPerMinute >= 7) {
+                improvements.add("Intensity: Your heart rate stayed low; include short harder efforts");
+            }
+        }
+
+        if (duration > 0) {
+            double perMinute = (double) calories / duration;
+            analysis.append(String.format("\n\nCalories:%d kcal burned, about %.1f kcal per minute.", calories, perMinute));
+            if (perMinute < profile.minCaloriesPerMinute) {
+                improvements.add("Intensity: Energy output was below typical; increase effort gradually");
+            } else if (perMinute > profile.maxCaloriesPerMinute) {
+                safety.add("High energy output; refuel with carbohydrates and protein after training");
+            }
+        }
+
+        if (metrics.isEmpty()) {
+            improvements.add("Tracking: Record heart rate or pace to get more specific feedback");
+        }
+        if (improvements.isEmpty()) {
+            improvements.add("Consistency: Keep this routine and progress volume by about 10% per week");
+        }
+
+        safety.add("Always warm up before exercise");
+        safety.add("Stay hydrated");
+        safety.add("Listen to your body");
+
+        return Recommendation.builder()
+                .activityId(activity.getActivityId())
+                .userId(activity.getUserId())
+                .activityType(activity.getType())
+                .recommendation(analysis.toString())
+                .improvements(improvements)
+                .suggestions(profile.suggestions)
+                .safety(safety)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Map<String, Double> normalizeMetrics(Map<String, Object> additionalMetrics) {
+        Map<String, Double> metrics = new HashMap<>();
+        if (additionalMetrics == null) {
+            return metrics;
+        }
+        additionalMetrics.forEach((key, value) -> {
+            String normalizedKey = key.toLowerCase(Locale.ROOT).replace("_", "");
+            if (value instanceof Number number) {
+                metrics.put(normalizedKey, number.doubleValue());
+            } else if (value != null) {
+                try {
+                    metrics.put(normalizedKey, Double.parseDouble(value.toString()));
+                } catch (NumberFormatException ignored) {
+                    // Non-numeric metrics carry no rule input
+                }
+            }
+        });
+        return metrics;
+    }
+}
@@ -0,0 +1,159 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally parses the analysis JSON while Gemini streams it. Text chunks are fed to Jackson's
+ * non-blocking parser as they arrive and each field is captured as soon as its token completes, so
+ * the full response text is never assembled. Anything before the first '{' (such as a ```json
+ * fence) and anything after the root object closes is skipped.
+ */
+final class StreamingRecommendationParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private final Map<String, String> analysis = new HashMap<>();
+    private final List<String> improvements = new ArrayList<>();
+    private final List<String> suggestions = new ArrayList<>();
+    private final List<String> safety = new ArrayList<>();
+
+    private String itemTitle = "";
+    private String itemDetail = "";
+    private boolean started;
+    private boolean complete;
+
+    StreamingRecommendationParser() throws IOException {
+        this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    void feed(String chunk) throws IOException {
+        if (complete) {
+            return;
+        }
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        if (!started) {
+            while (offset < bytes.length && bytes[offset] != '{') {
+                offset++;
+            }
+            if (offset == bytes.length) {
+                return;
+            }
+            started = true;
+        }
+        feeder.feedInput(bytes, offset, bytes.length);
+        drain();
+    }
+
+    /**
+     * Signals the end of the stream.
+     *
+     * @throws JsonParseException if the root object never closed
+     */
+    void finish() throws IOException {
+        if (!complete) {
+            feeder.endOfInput();
+            drain();
+        }
+        if (!complete) {
+            throw new JsonParseException(parser, "Streamed analysis ended before the JSON object was complete");
+        }
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    boolean hasSection() {
+        return !analysis.isEmpty() || !improvements.isEmpty() || !suggestions.isEmpty() || !safety.isEmpty();
+    }
+
+    Map<String, String> getAnalysis() {
+        return analysis;
+    }
+
+    List<String> getImprovements() {
+        return improvements;
+    }
+
+    List<String> getSuggestions() {
+        return suggestions;
+    }
+
+    List<String> getSafety() {
+        return safety;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!complete && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (token.isScalarValue()) {
+                onValue(parser.getParsingContext(), parser.getText());
+            } else if (token == JsonToken.END_OBJECT) {
+                // The context has already been popped to the enclosing one
+                JsonStreamContext enclosing = parser.getParsingContext();
+                if (enclosing.inRoot()) {
+                    complete = true;
+                } else if (enclosing.inArray()) {
+                    onItemEnd(listName(enclosing));
+                }
+            }
+        }
+    }
+
+    private void onValue(JsonStreamContext context, String value) {
+        if (context.inArray()) {
+            if ("safety".equals(listName(context))) {
+                safety.add(value);
+            }
+            return;
+        }
+        JsonStreamContext parent = context.getParent();
+        if (parent == null || parent.inRoot()) {
+            return;
+        }
+        String field = context.getCurrentName();
+        if (parent.inObject() && "analysis".equals(parent.getCurrentName())) {
+            analysis.put(field, value);
+        } else if (parent.inArray()) {
+            switch (field) {
+                case "area", "workout" -> itemTitle = value;
+                case "recommendation", "description" -> itemDetail = value;
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void onItemEnd(String list) {
+        String item = String.format("%s: %s", itemTitle, itemDetail);
+        if ("improvements".equals(list)) {
+            improvements.add(item);
+        } else if ("suggestions".equals(list)) {
+            suggestions.add(item);
+        }
+        itemTitle = "";
+        itemDetail = "";
+    }
+
+    private static String listName(JsonStreamContext arrayContext) {
+        JsonStreamContext owner = arrayContext.getParent();
+        return owner == null ? null : owner.getCurrentName();
+    }
+}
@@ -0,0 +1,39 @@
+package com.fitness.aiservice.service.Impl;
+
+/**
+ * Reservation-style token bucket. {@link #reserve()} always takes a token and returns how long the
+ * caller has to wait before using it, so callers queue up in order instead of spinning.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double tokensPerMinute, int burst) {
+        this.tokensPerNano = tokensPerMinute / 60_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * @return nanoseconds to wait before the reserved token may be used, zero if it is available now
+     */
+    synchronized long reserve() {
+        refill(System.nanoTime());
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    synchronized double available() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
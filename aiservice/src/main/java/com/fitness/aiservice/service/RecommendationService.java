@@ -1,6 +1,8 @@
 package com.fitness.aiservice.service;
 
 import com.fitness.aiservice.model.Recommendation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -8,4 +10,11 @@ public interface RecommendationService {
     List<Recommendation> getUserRecommendation(String userId);
 
     Recommendation getActivityRecommendation(String activityId);
+
+    /**
+     * Emits the activity's recommendation as soon as it exists, or completes empty after the timeout.
+     */
+    Mono<Recommendation> awaitActivityRecommendation(String activityId);
+
+    Flux<Recommendation> streamUserRecommendations(String userId);
 }
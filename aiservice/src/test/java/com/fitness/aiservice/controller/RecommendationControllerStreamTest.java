@@ -0,0 +1,81 @@
+package com.fitness.aiservice.controller;
+
+import com.fitness.aiservice.model.Recommendation;
+import com.fitness.aiservice.service.RecommendationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the SSE endpoints on a real Tomcat with the async settings from ai-service.yml. The container's
+ * default async timeout is cut from 30s to 1s so a stream outliving it does not make the test wait
+ * half a minute; only the Reactor timeouts may end a stream.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.mvc.async.request-timeout=-1", "spring.cloud.config.enabled=false"})
+class RecommendationControllerStreamTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<Recommendation>> EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import(RecommendationController.class)
+    static class StreamTestConfig {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortContainerAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(1000));
+        }
+    }
+
+    @MockitoBean
+    private RecommendationService recommendationService;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void streamActivityRecommendation_OutlivesContainerAsyncTimeout() {
+        Recommendation recommendation = Recommendation.builder().activityId("a1").userId("u1").build();
+        when(recommendationService.awaitActivityRecommendation("a1"))
+                .thenReturn(Mono.delay(Duration.ofSeconds(3)).thenReturn(recommendation));
+
+        List<ServerSentEvent<Recommendation>> events = WebClient.create("http://localhost:" + port)
+                .get()
+                .uri("/api/recommendations/activity/a1/stream")
+                .retrieve()
+                .bodyToFlux(EVENT)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(events);
+        assertEquals(1, events.size());
+        assertEquals("recommendation", events.get(0).event());
+        assertEquals("a1", events.get(0).data().getActivityId());
+    }
+}
@@ -0,0 +1,215 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.Recommendation;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityAIServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Mock
+    private GeminiServiceImpl geminiService;
+
+    @Mock
+    private RecommendationCache recommendationCache;
+
+    @Mock
+    private RuleBasedRecommendationEngine ruleEngine;
+
+    private ActivityAIService aiService;
+
+    @BeforeEach
+    void setUp() {
+        aiService = new ActivityAIService(geminiService, recommendationCache, ruleEngine, MAPPER, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(aiService, "batchingEnabled", true);
+        ReflectionTestUtils.setField(aiService, "batchMaxSize", 2);
+        ReflectionTestUtils.setField(aiService, "batchMaxWaitMs", 2000L);
+        ReflectionTestUtils.setField(aiService, "maxConcurrentBatches", 2);
+        ReflectionTestUtils.setField(aiService, "batchResultTimeout", Duration.ofSeconds(30));
+        aiService.startBatcher();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiService.stopBatcher();
+    }
+
+    private Activity createActivity(String activityId) {
+        Activity activity = new Activity();
+        activity.setActivityId(activityId);
+        activity.setUserId("user-123");
+        activity.setType("RUNNING");
+        activity.setDuration(30);
+        activity.setCaloriesBurned(300);
+        return activity;
+    }
+
+    private static Map<String, Object> analysis(String activityId, String overall) {
+        return Map.of(
+                "activityId", activityId,
+                "analysis", Map.of("overall", overall),
+                "safety", List.of("Stay hydrated"));
+    }
+
+    private static String geminiEnvelope(Object content) throws Exception {
+        String text = "```json\n" + MAPPER.writeValueAsString(content) + "\n```";
+        return MAPPER.writeValueAsString(Map.of("candidates", List.of(
+                Map.of("content", Map.of("parts", List.of(Map.of("text", text)))))));
+    }
+
+    @Test
+    void generateRecommendationAsync_FullBatch_UsesOnePromptAndSplitsResults() throws Exception {
+        when(geminiService.getAnswerAsync(contains("Analyze each of the following 2")))
+                .thenReturn(Mono.just(geminiEnvelope(List.of(
+                        analysis("a2", "Second run"),
+                        analysis("a1", "First run")))));
+
+        Mono<Recommendation> first = aiService.generateRecommendationAsync(createActivity("a1"));
+        Mono<Recommendation> second = aiService.generateRecommendationAsync(createActivity("a2"));
+        List<Recommendation> results = Mono.zip(first, second, List::of).block(Duration.ofSeconds(5));
+
+        assertEquals("a1", results.get(0).getActivityId());
+        assertEquals("Overall:First run", results.get(0).getRecommendation());
+        assertEquals("a2", results.get(1).getActivityId());
+        assertEquals("Overall:Second run", results.get(1).getRecommendation());
+        verify(geminiService, times(1)).getAnswerAsync(anyString());
+    }
+
+    @Test
+    void generateRecommendationAsync_UnsplittableResponse_FallsBackToSinglePrompts() throws Exception {
+        when(geminiService.getAnswerAsync(contains("Analyze each of the following 2")))
+                .thenReturn(Mono.just(geminiEnvelope(Map.of("unexpected", "shape"))));
+        when(geminiService.getAnswerAsync(contains("Analyze this fitness activity")))
+                .thenReturn(Mono.just(geminiEnvelope(analysis("ignored", "Single run"))));
+
+        List<Recommendation> results = Mono.zip(
+                aiService.generateRecommendationAsync(createActivity("a1")),
+                aiService.generateRecommendationAsync(createActivity("a2")),
+                List::of).block(Duration.ofSeconds(5));
+
+        assertEquals("a1", results.get(0).getActivityId());
+        assertEquals("Overall:Single run", results.get(0).getRecommendation());
+        assertEquals("a2", results.get(1).getActivityId());
+        verify(geminiService, times(3)).getAnswerAsync(anyString());
+    }
+
+    @Test
+    void generateRecommendationAsync_BatchCallFails_FailsEveryActivity() {
+        when(geminiService.getAnswerAsync(anyString()))
+                .thenReturn(Mono.error(new RuntimeException("429 Too Many Requests")));
+
+        Mono<Recommendation> first = aiService.generateRecommendationAsync(createActivity("a1"));
+        Mono<Recommendation> second = aiService.generateRecommendationAsync(createActivity("a2"));
+        first.subscribe(r -> { }, e -> { });
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> second.block(Duration.ofSeconds(5)));
+        assertEquals("429 Too Many Requests", error.getMessage());
+        verify(geminiService, times(1)).getAnswerAsync(anyString());
+    }
+
+    @Test
+    void generateRecommendationAsync_TrivialActivity_AnswersFromRulesWithoutGemini() {
+        Activity activity = createActivity("a1");
+        Recommendation fromRules = Recommendation.builder().activityId("a1").build();
+        when(ruleEngine.isTrivial(activity)).thenReturn(true);
+        when(ruleEngine.recommend(activity)).thenReturn(fromRules);
+
+        assertSame(fromRules, aiService.generateRecommendationAsync(activity).block(Duration.ofSeconds(5)));
+        verifyNoInteractions(geminiService);
+    }
+
+    @Test
+    void generateRecommendationAsync_BreakerOpen_AnswersEveryBatchedActivityFromRules() {
+        CallNotPermittedException open = CallNotPermittedException
+                .createCallNotPermittedException(CircuitBreaker.ofDefaults("gemini"));
+        when(geminiService.getAnswerAsync(anyString())).thenReturn(Mono.error(open));
+        when(ruleEngine.recommend(any(Activity.class))).thenAnswer(invocation -> Recommendation.builder()
+                .activityId(invocation.<Activity>getArgument(0).getActivityId())
+                .recommendation("rules")
+                .build());
+
+        List<Recommendation> results = Mono.zip(
+                aiService.generateRecommendationAsync(createActivity("a1")),
+                aiService.generateRecommendationAsync(createActivity("a2")),
+                List::of).block(Duration.ofSeconds(5));
+
+        assertEquals("a1", results.get(0).getActivityId());
+        assertEquals("rules", results.get(0).getRecommendation());
+        assertEquals("a2", results.get(1).getActivityId());
+        verify(geminiService, times(1)).getAnswerAsync(anyString());
+    }
+
+    @Test
+    void generateRecommendationAsync_Streaming_BuildsRecommendationFromChunks() throws Exception {
+        aiService.stopBatcher();
+        ReflectionTestUtils.setField(aiService, "batchingEnabled", false);
+        ReflectionTestUtils.setField(aiService, "streamingEnabled", true);
+        aiService.startBatcher();
+        String json = MAPPER.writeValueAsString(analysis("a1", "Streamed run"));
+        when(geminiService.streamAnswer(anyString())).thenReturn(Flux.just(
+                "```json\n" + json.substring(0, 20), json.substring(20, 41), json.substring(41) + "\n```"));
+
+        Recommendation result = aiService.generateRecommendationAsync(createActivity("a1")).block(Duration.ofSeconds(5));
+
+        assertEquals("a1", result.getActivityId());
+        assertEquals("Overall:Streamed run", result.getRecommendation());
+        assertEquals(List.of("Stay hydrated"), result.getSafety());
+        assertEquals(List.of("No specific improvements provided"), result.getImprovements());
+        verify(geminiService, never()).getAnswerAsync(anyString());
+    }
+
+    @Test
+    void generateRecommendationAsync_BeforeGemini_OnlyWaitedOnForGeminiBoundActivities() throws Exception {
+        AtomicInteger charged = new AtomicInteger();
+        Mono<Void> beforeGemini = Mono.fromRunnable(charged::incrementAndGet);
+        Activity trivial = createActivity("a1");
+        when(ruleEngine.isTrivial(trivial)).thenReturn(true);
+        when(ruleEngine.recommend(trivial)).thenReturn(Recommendation.builder().activityId("a1").build());
+        aiService.generateRecommendationAsync(trivial, beforeGemini).block(Duration.ofSeconds(5));
+        assertEquals(0, charged.get());
+
+        aiService.stopBatcher();
+        ReflectionTestUtils.setField(aiService, "batchingEnabled", false);
+        aiService.startBatcher();
+        when(geminiService.getAnswerAsync(anyString()))
+                .thenReturn(Mono.just(geminiEnvelope(analysis("a2", "Long run"))));
+
+        Recommendation result = aiService.generateRecommendationAsync(createActivity("a2"), beforeGemini)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("a2", result.getActivityId());
+        assertEquals(1, charged.get());
+    }
+
+    @Test
+    void stripCodeFence_ExtractsJsonValue() {
+        assertEquals("{\"a\":1}", ActivityAIService.stripCodeFence("```json\n{\"a\":1}\n```"));
+        assertEquals("[{\"a\":1}]", ActivityAIService.stripCodeFence("Here you go: [{\"a\":1}]"));
+        assertEquals("no json", ActivityAIService.stripCodeFence(" no json "));
+    }
+}
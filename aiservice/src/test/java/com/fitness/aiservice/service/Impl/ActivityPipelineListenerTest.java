@@ -0,0 +1,117 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.ActivityLane;
+import com.fitness.aiservice.model.Recommendation;
+import com.fitness.aiservice.repository.RecommendationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityPipelineListenerTest {
+
+    @Mock
+    private ActivityAIService aiService;
+
+    @Mock
+    private RecommendationRepository recommendationRepository;
+
+    @Mock
+    private RecommendationEventRegistry eventRegistry;
+
+    @Mock
+    private BulkLaneGate bulkLaneGate;
+
+    @Mock
+    private ActivityLaneMetrics laneMetrics;
+
+    @Mock
+    private ActivityRetryPublisher retryPublisher;
+
+    @InjectMocks
+    private ActivityPipelineListener pipelineListener;
+
+    private Activity createActivity() {
+        Activity activity = new Activity();
+        activity.setActivityId("activity-1");
+        activity.setUserId("user-123");
+        activity.setType("RUNNING");
+        return activity;
+    }
+
+    @Test
+    void processActivity_CompletesOnlyAfterRecommendationIsSaved() {
+        Activity activity = createActivity();
+        Recommendation recommendation = Recommendation.builder()
+                .activityId("activity-1")
+                .userId("user-123")
+                .build();
+        when(aiService.generateRecommendationAsync(activity)).thenReturn(Mono.just(recommendation));
+        when(recommendationRepository.save(recommendation)).thenReturn(recommendation);
+
+        StepVerifier.create(pipelineListener.processActivity(activity, null))
+                .verifyComplete();
+
+        verify(recommendationRepository).save(recommendation);
+        verify(eventRegistry).publish(recommendation);
+        verify(laneMetrics).completed(ActivityLane.LIVE, activity);
+    }
+
+    @Test
+    void processActivity_WhenGeminiFails_HandsOffToRetryAndCompletes() {
+        Activity activity = createActivity();
+        RuntimeException failure = new RuntimeException("Gemini unavailable");
+        when(aiService.generateRecommendationAsync(activity)).thenReturn(Mono.error(failure));
+        when(retryPublisher.handleFailureAsync(activity, ActivityLane.LIVE, 2, failure)).thenReturn(Mono.empty());
+
+        StepVerifier.create(pipelineListener.processActivity(activity, 2))
+                .verifyComplete();
+
+        verify(retryPublisher).handleFailureAsync(activity, ActivityLane.LIVE, 2, failure);
+        verify(recommendationRepository, never()).save(any());
+        verifyNoInteractions(eventRegistry);
+        verify(laneMetrics, never()).completed(any(), any());
+    }
+
+    @Test
+    void processActivity_WhenRetryHandOffFails_PropagatesError() {
+        Activity activity = createActivity();
+        RuntimeException failure = new RuntimeException("Gemini unavailable");
+        when(aiService.generateRecommendationAsync(activity)).thenReturn(Mono.error(failure));
+        when(retryPublisher.handleFailureAsync(activity, ActivityLane.LIVE, null, failure))
+                .thenReturn(Mono.error(new RuntimeException("broker down")));
+
+        StepVerifier.create(pipelineListener.processActivity(activity, null))
+                .verifyErrorMessage("broker down");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processBulkActivity_RunsThroughBulkGate() {
+        Activity activity = createActivity();
+        Recommendation recommendation = Recommendation.builder()
+                .activityId("activity-1")
+                .userId("user-123")
+                .build();
+        when(bulkLaneGate.run(any())).thenAnswer(invocation -> ((Supplier<Mono<Void>>) invocation.getArgument(0)).get());
+        when(aiService.generateRecommendationAsync(activity)).thenReturn(Mono.just(recommendation));
+        when(recommendationRepository.save(recommendation)).thenReturn(recommendation);
+
+        StepVerifier.create(pipelineListener.processBulkActivity(activity, null))
+                .verifyComplete();
+
+        verify(bulkLaneGate).run(any());
+        verify(laneMetrics).received(ActivityLane.BULK, activity);
+        verify(laneMetrics).completed(ActivityLane.BULK, activity);
+    }
+}
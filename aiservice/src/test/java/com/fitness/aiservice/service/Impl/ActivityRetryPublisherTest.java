@@ -0,0 +1,89 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.config.RabbitMqConfig;
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.ActivityLane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityRetryPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ActivityRetryPublisher retryPublisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryPublisher = new ActivityRetryPublisher(rabbitTemplate, meterRegistry,
+                List.of(Duration.ofSeconds(5), Duration.ofSeconds(30)), 4, "activity.dlq");
+    }
+
+    private Activity createActivity() {
+        Activity activity = new Activity();
+        activity.setActivityId("activity-1");
+        activity.setUserId("user-123");
+        return activity;
+    }
+
+    private MessageProperties applyHeaders(MessagePostProcessor postProcessor) {
+        Message message = new Message(new byte[0], new MessageProperties());
+        return postProcessor.postProcessMessage(message).getMessageProperties();
+    }
+
+    @Test
+    void handleFailure_FirstFailure_GoesToShortestDelayQueue() {
+        Activity activity = createActivity();
+
+        retryPublisher.handleFailure(activity, ActivityLane.LIVE, null, new RuntimeException("timeout"));
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(""), eq("activity.retry.5000ms"), eq(activity), postProcessor.capture());
+        MessageProperties properties = applyHeaders(postProcessor.getValue());
+        assertEquals(1, (Integer) properties.getHeader(RabbitMqConfig.RETRY_ATTEMPT_HEADER));
+        assertEquals("LIVE", properties.getHeader(RabbitMqConfig.ORIGIN_LANE_HEADER));
+        assertEquals("timeout", properties.getHeader(RabbitMqConfig.LAST_ERROR_HEADER));
+    }
+
+    @Test
+    void handleFailure_LaterRetries_StayOnLongestTier() {
+        Activity activity = createActivity();
+
+        retryPublisher.handleFailure(activity, ActivityLane.BULK, 2, new RuntimeException("timeout"));
+
+        verify(rabbitTemplate).convertAndSend(eq(""), eq("activity.retry.30000ms"), eq(activity), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void handleFailure_OutOfAttempts_GoesToDeadLetterQueue() {
+        Activity activity = createActivity();
+
+        retryPublisher.handleFailure(activity, ActivityLane.BULK, 3, new RuntimeException("bad payload"));
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(""), eq("activity.dlq"), eq(activity), postProcessor.capture());
+        assertEquals("BULK", applyHeaders(postProcessor.getValue()).getHeader(RabbitMqConfig.ORIGIN_LANE_HEADER));
+        assertEquals(1.0, meterRegistry.counter("ai.retry.dead-lettered", "lane", "bulk").count());
+    }
+}
@@ -0,0 +1,195 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.BackfillJob;
+import com.fitness.aiservice.model.BackfillStatus;
+import com.fitness.aiservice.model.Recommendation;
+import com.fitness.aiservice.repository.RecommendationRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackfillRunnerTest {
+
+    @Mock
+    private ActivityAIService aiService;
+
+    @Mock
+    private RecommendationRepository recommendationRepository;
+
+    @Mock
+    private BulkLaneGate bulkLaneGate;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final List<String> requestedPages = new ArrayList<>();
+
+    private BackfillRunner backfillRunner;
+
+    @BeforeEach
+    void setUp() {
+        WebClient activityServiceWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requestedPages.add(request.url().getQuery());
+                    String body = request.url().getQuery().contains("after=a-2")
+                            ? "{\"activities\":[{\"activityId\":\"a-3\"}],\"nextCursor\":\"a-3\",\"hasMore\":false}"
+                            : "{\"activities\":[{\"activityId\":\"a-1\"},{\"activityId\":\"a-2\"}],\"nextCursor\":\"a-2\",\"hasMore\":true}";
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        backfillRunner = new BackfillRunner(activityServiceWebClient, aiService, recommendationRepository,
+                bulkLaneGate, mongoTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(backfillRunner, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(backfillRunner, "fetchRetries", 0);
+    }
+
+    private BackfillJob createJob() {
+        return BackfillJob.builder()
+                .id("job-1")
+                .status(BackfillStatus.RUNNING)
+                .ratePerSecond(1000)
+                .parallelism(2)
+                .pageSize(2)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_ProcessesEveryPageAndCheckpointsAfterEach() {
+        when(bulkLaneGate.run(any())).thenAnswer(invocation -> ((Supplier<Mono<Recommendation>>) invocation.getArgument(0)).get());
+        when(aiService.generateRecommendationAsync(any(Activity.class), any())).thenAnswer(invocation -> {
+            Activity activity = invocation.getArgument(0);
+            if (activity.getActivityId().equals("a-2")) {
+                return Mono.error(new RuntimeException("Gemini unavailable"));
+            }
+            return Mono.just(Recommendation.builder().activityId(activity.getActivityId()).build());
+        });
+        when(recommendationRepository.findFirstByActivityId(any())).thenReturn(Optional.empty());
+        when(recommendationRepository.save(any(Recommendation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BackfillJob.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        StepVerifier.create(backfillRunner.execute(createJob()))
+                .verifyComplete();
+
+        assertEquals(2, requestedPages.size());
+        assertFalse(requestedPages.get(0).contains("after="));
+        verify(recommendationRepository, times(2)).save(any(Recommendation.class));
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).updateFirst(any(Query.class), updates.capture(), eq(BackfillJob.class));
+        Update firstCheckpoint = updates.getAllValues().get(0);
+        assertEquals("a-2", setValue(firstCheckpoint, "checkpoint"));
+        assertEquals(1L, ((Document) firstCheckpoint.getUpdateObject().get("$inc")).get("failed"));
+        assertEquals("a-3", setValue(updates.getAllValues().get(1), "checkpoint"));
+        assertEquals(BackfillStatus.COMPLETED, setValue(updates.getAllValues().get(2), "status"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_ActivitiesNotReachingGemini_AreNotPaced() {
+        BackfillJob job = createJob();
+        // One token every 1000s: any activity charged for a token would stall the run
+        job.setRatePerSecond(0.001);
+        job.setParallelism(1);
+        when(bulkLaneGate.run(any())).thenAnswer(invocation -> ((Supplier<Mono<Recommendation>>) invocation.getArgument(0)).get());
+        when(aiService.generateRecommendationAsync(any(Activity.class), any())).thenAnswer(invocation ->
+                Mono.just(Recommendation.builder().activityId(invocation.<Activity>getArgument(0).getActivityId()).build()));
+        when(recommendationRepository.findFirstByActivityId(any())).thenReturn(Optional.empty());
+        when(recommendationRepository.save(any(Recommendation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BackfillJob.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        StepVerifier.create(backfillRunner.execute(job))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        verify(recommendationRepository, times(3)).save(any(Recommendation.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_FetchesNextPageOnlyAfterCurrentPageIsProcessed() {
+        Sinks.Empty<Void> firstPageDone = Sinks.empty();
+        when(bulkLaneGate.run(any())).thenAnswer(invocation -> ((Supplier<Mono<Recommendation>>) invocation.getArgument(0)).get());
+        when(aiService.generateRecommendationAsync(any(Activity.class), any())).thenAnswer(invocation ->
+                firstPageDone.asMono().thenReturn(
+                        Recommendation.builder().activityId(invocation.<Activity>getArgument(0).getActivityId()).build()));
+        when(recommendationRepository.findFirstByActivityId(any())).thenReturn(Optional.empty());
+        when(recommendationRepository.save(any(Recommendation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BackfillJob.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        StepVerifier.create(backfillRunner.execute(createJob()))
+                .then(() -> assertEquals(1, requestedPages.size()))
+                .then(firstPageDone::tryEmitEmpty)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(2, requestedPages.size());
+    }
+
+    private static Object setValue(Update update, String field) {
+        return ((Document) update.getUpdateObject().get("$set")).get(field);
+    }
+
+    @Test
+    void execute_LeaseLost_StopsWithoutCompleting() {
+        when(bulkLaneGate.run(any())).thenReturn(Mono.empty());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BackfillJob.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        StepVerifier.create(backfillRunner.execute(createJob()))
+                .verifyError(IllegalStateException.class);
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), updates.capture(), eq(BackfillJob.class));
+        assertEquals(BackfillStatus.FAILED, setValue(updates.getAllValues().get(1), "status"));
+    }
+
+    @Test
+    void upsert_ReusesExistingRecommendationId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 8, 0);
+        Recommendation existing = Recommendation.builder().id("rec-1").activityId("a-1").createdAt(createdAt).build();
+        Recommendation regenerated = Recommendation.builder().activityId("a-1").recommendation("new").build();
+        when(recommendationRepository.findFirstByActivityId("a-1")).thenReturn(Optional.of(existing));
+        when(recommendationRepository.save(regenerated)).thenReturn(regenerated);
+
+        Recommendation saved = backfillRunner.upsert(regenerated);
+
+        assertEquals("rec-1", saved.getId());
+        assertEquals(createdAt, saved.getCreatedAt());
+    }
+}
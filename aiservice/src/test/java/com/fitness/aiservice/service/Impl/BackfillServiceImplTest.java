@@ -0,0 +1,95 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.BackfillJob;
+import com.fitness.aiservice.model.BackfillStatus;
+import com.fitness.aiservice.repository.BackfillJobRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackfillServiceImplTest {
+
+    @Mock
+    private BackfillJobRepository backfillJobRepository;
+
+    @Mock
+    private BackfillRunner backfillRunner;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private BackfillServiceImpl backfillService;
+
+    private BackfillJob createJob(BackfillStatus status) {
+        return BackfillJob.builder()
+                .id("job-1")
+                .status(status)
+                .checkpoint("a-2")
+                .processed(2)
+                .build();
+    }
+
+    @Test
+    void pauseBackfill_SetsOnlyStatusFieldsAndStopsRunner() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BackfillJob.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(backfillJobRepository.findById("job-1")).thenReturn(Optional.of(createJob(BackfillStatus.PAUSED)));
+
+        BackfillJob result = backfillService.pauseBackfill("job-1");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(BackfillJob.class));
+        assertEquals(BackfillStatus.RUNNING, query.getValue().getQueryObject().get("status"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(BackfillStatus.PAUSED, set.get("status"));
+        assertTrue(set.containsKey("leaseUntil"));
+        assertFalse(set.containsKey("processed"));
+        assertFalse(set.containsKey("failed"));
+        assertFalse(set.containsKey("checkpoint"));
+        verify(backfillJobRepository, never()).save(any());
+        verify(backfillRunner).stop("job-1");
+        assertEquals(BackfillStatus.PAUSED, result.getStatus());
+    }
+
+    @Test
+    void pauseBackfill_NotRunning_ThrowsWithoutStopping() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BackfillJob.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(backfillJobRepository.findById("job-1")).thenReturn(Optional.of(createJob(BackfillStatus.COMPLETED)));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> backfillService.pauseBackfill("job-1"));
+
+        assertEquals("Backfill job-1 is not running", error.getMessage());
+        verifyNoInteractions(backfillRunner);
+    }
+
+    @Test
+    void resumeBackfill_Completed_ThrowsWithoutLaunching() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(BackfillJob.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(backfillJobRepository.findById("job-1")).thenReturn(Optional.of(createJob(BackfillStatus.COMPLETED)));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> backfillService.resumeBackfill("job-1"));
+
+        assertEquals("Backfill job-1 cannot be resumed from COMPLETED", error.getMessage());
+        verifyNoInteractions(backfillRunner);
+    }
+}
@@ -0,0 +1,73 @@
+package com.fitness.aiservice.service.Impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkLaneGateTest {
+
+    @Mock
+    private GeminiGovernor governor;
+
+    private BulkLaneGate bulkLaneGate;
+
+    @BeforeEach
+    void setUp() {
+        bulkLaneGate = new BulkLaneGate(governor, new SimpleMeterRegistry(), 0.25);
+    }
+
+    @Test
+    void capacity_IsShareOfConcurrencyLimitButNeverZero() {
+        when(governor.getConcurrencyLimit()).thenReturn(12.0);
+        assertEquals(3, bulkLaneGate.capacity());
+
+        when(governor.getConcurrencyLimit()).thenReturn(2.0);
+        assertEquals(1, bulkLaneGate.capacity());
+    }
+
+    @Test
+    void run_WhenAtCapacity_WaitsForRelease() {
+        when(governor.getConcurrencyLimit()).thenReturn(4.0);
+        Sinks.Empty<Void> first = Sinks.empty();
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        bulkLaneGate.run(first::asMono).subscribe();
+        bulkLaneGate.run(() -> Mono.fromRunnable(() -> secondStarted.set(true))).subscribe();
+
+        assertFalse(secondStarted.get());
+        assertEquals(1, bulkLaneGate.getWaiting());
+
+        first.tryEmitEmpty();
+
+        assertTrue(secondStarted.get());
+        assertEquals(0, bulkLaneGate.getInFlight());
+    }
+
+    @Test
+    void run_CancelledWhileWaiting_DoesNotTakeASlot() {
+        when(governor.getConcurrencyLimit()).thenReturn(4.0);
+        Sinks.Empty<Void> first = Sinks.empty();
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        bulkLaneGate.run(first::asMono).subscribe();
+        Disposable waiting = bulkLaneGate.run(() -> Mono.fromRunnable(() -> secondStarted.set(true))).subscribe();
+        waiting.dispose();
+        first.tryEmitEmpty();
+
+        assertFalse(secondStarted.get());
+        assertEquals(0, bulkLaneGate.getWaiting());
+        assertEquals(0, bulkLaneGate.getInFlight());
+    }
+}
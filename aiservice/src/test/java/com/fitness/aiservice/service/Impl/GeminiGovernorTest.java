@@ -0,0 +1,121 @@
+package com.fitness.aiservice.service.Impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiGovernorTest {
+
+    private GeminiGovernor createGovernor(int initialConcurrency, int maxQueued, Duration callTimeout) {
+        return new GeminiGovernor(new SimpleMeterRegistry(), 6000, 100,
+                initialConcurrency, 1, 32, 0.5, maxQueued, Duration.ofSeconds(30), callTimeout);
+    }
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "status " + code, HttpHeaders.EMPTY, new byte[0], null);
+    }
+
+    @Test
+    void execute_CapsInFlightCallsAndQueuesTheRest() {
+        GeminiGovernor governor = createGovernor(2, 10, Duration.ofSeconds(5));
+        AtomicInteger started = new AtomicInteger();
+        Sinks.One<String> first = Sinks.one();
+
+        Disposable.Composite calls = Disposables.composite(
+                governor.execute(() -> { started.incrementAndGet(); return first.asMono(); }).subscribe(v -> { }, e -> { }),
+                governor.execute(() -> { started.incrementAndGet(); return Mono.never(); }).subscribe(v -> { }, e -> { }),
+                governor.execute(() -> { started.incrementAndGet(); return Mono.just("third"); }).subscribe(v -> { }, e -> { }));
+
+        assertEquals(2, started.get());
+        first.tryEmitValue("first");
+        assertEquals(3, started.get());
+        calls.dispose();
+    }
+
+    @Test
+    void execute_QueueFull_RejectsWithoutCallingProvider() {
+        GeminiGovernor governor = createGovernor(1, 1, Duration.ofSeconds(5));
+        AtomicInteger started = new AtomicInteger();
+
+        Disposable.Composite calls = Disposables.composite(
+                governor.execute(() -> { started.incrementAndGet(); return Mono.never(); }).subscribe(v -> { }, e -> { }),
+                governor.execute(() -> { started.incrementAndGet(); return Mono.never(); }).subscribe(v -> { }, e -> { }));
+
+        StepVerifier.create(governor.execute(() -> { started.incrementAndGet(); return Mono.just("x"); }))
+                .expectError(RejectedExecutionException.class)
+                .verify();
+        assertEquals(1, started.get());
+        calls.dispose();
+    }
+
+    @Test
+    void execute_Throttled_ShrinksConcurrencyLimitOncePerWindow() {
+        GeminiGovernor governor = createGovernor(8, 10, Duration.ofSeconds(5));
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        governor.execute(first::asMono).subscribe(v -> { }, e -> { });
+        governor.execute(second::asMono).subscribe(v -> { }, e -> { });
+
+        first.tryEmitError(status(429));
+        second.tryEmitError(status(429));
+
+        assertEquals(4.0, governor.getConcurrencyLimit(), 0.001);
+    }
+
+    @Test
+    void execute_ClientError_DoesNotShrinkLimit() {
+        GeminiGovernor governor = createGovernor(8, 10, Duration.ofSeconds(5));
+
+        StepVerifier.create(governor.execute(() -> Mono.error(status(400))))
+                .expectError(WebClientResponseException.class)
+                .verify();
+
+        assertEquals(8.0, governor.getConcurrencyLimit(), 0.001);
+    }
+
+    @Test
+    void execute_SlowCall_TimesOutAndBacksOff() {
+        GeminiGovernor governor = createGovernor(8, 10, Duration.ofMillis(50));
+
+        StepVerifier.create(governor.execute(Mono::never))
+                .expectError(java.util.concurrent.TimeoutException.class)
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(4.0, governor.getConcurrencyLimit(), 0.001);
+    }
+
+    @Test
+    void execute_SaturatedHealthyCalls_GrowLimitAdditively() {
+        GeminiGovernor governor = createGovernor(1, 10, Duration.ofSeconds(5));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(governor.execute(() -> Mono.just("ok"))).expectNext("ok").verifyComplete();
+        }
+
+        // 1 -> 2 -> 2 (not saturated at 1 of 2) -> 2
+        assertEquals(2.0, governor.getConcurrencyLimit(), 0.001);
+    }
+
+    @Test
+    void tokenBucket_BeyondBurst_DelaysReservations() {
+        TokenBucket bucket = new TokenBucket(60, 2);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        long wait = bucket.reserve();
+
+        assertTrue(wait > Duration.ofMillis(900).toNanos() && wait <= Duration.ofSeconds(1).toNanos());
+    }
+}
@@ -0,0 +1,94 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.config.GeminiCircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiServiceImplTest {
+
+    private static final Duration CALL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private CircuitBreakerRegistry breakerRegistry;
+
+    private GeminiServiceImpl geminiService;
+
+    @BeforeEach
+    void setUp() {
+        breakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+                breakerRegistry, TimeLimiterRegistry.ofDefaults(), new Resilience4JConfigurationProperties());
+        GeminiCircuitBreakerConfig breakerConfig = new GeminiCircuitBreakerConfig();
+        ReflectionTestUtils.setField(breakerConfig, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(breakerConfig, "slowCallThreshold", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(breakerConfig, "windowSize", 4);
+        ReflectionTestUtils.setField(breakerConfig, "openDuration", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(breakerConfig, "callTimeout", CALL_TIMEOUT);
+        breakerConfig.geminiCircuitBreakerCustomizer().customize(factory);
+
+        // One slot and plenty of tokens: later calls queue for the slot, each exchange takes 100ms
+        GeminiGovernor governor = new GeminiGovernor(new SimpleMeterRegistry(), 60000, 1000,
+                1, 1, 1, 0.5, 100, Duration.ofSeconds(30), CALL_TIMEOUT);
+        WebClient.Builder webClientBuilder = WebClient.builder()
+                .exchangeFunction(request -> Mono.delay(Duration.ofMillis(100))
+                        .doOnNext(tick -> exchanges.incrementAndGet())
+                        .thenReturn(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"candidates\":[]}")
+                                .build()));
+        geminiService = new GeminiServiceImpl(webClientBuilder, governor, factory);
+        ReflectionTestUtils.setField(geminiService, "geminiApiUrl", "http://gemini.test/generate?key=");
+        ReflectionTestUtils.setField(geminiService, "geminiApiKey", "test");
+    }
+
+    @Test
+    void getAnswerAsync_SaturatedLimiter_KeepsBreakerClosed() {
+        // Fifteen calls through one slot: the last ones wait well past the slow-call threshold and the
+        // call timeout, but every exchange itself is fast
+        List<String> answers = Flux.range(0, 15)
+                .flatMap(i -> geminiService.getAnswerAsync("question " + i))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(15, answers.size());
+        CircuitBreaker breaker = breakerRegistry.circuitBreaker("gemini");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(0, breaker.getMetrics().getNumberOfSlowCalls());
+    }
+
+    @Test
+    void getAnswerAsync_BreakerOpen_FailsFastWithoutCallingGemini() {
+        geminiService.getAnswerAsync("warm up").block(Duration.ofSeconds(5));
+        breakerRegistry.circuitBreaker("gemini").transitionToOpenState();
+        int before = exchanges.get();
+
+        StepVerifier.create(geminiService.getAnswerAsync("question"))
+                .expectError(CallNotPermittedException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(before, exchanges.get());
+    }
+}
@@ -0,0 +1,94 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.Recommendation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationBatcherTest {
+
+    private RecommendationBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    private static Activity createActivity(String activityId) {
+        Activity activity = new Activity();
+        activity.setActivityId(activityId);
+        return activity;
+    }
+
+    private static Mono<Void> completeAll(List<RecommendationBatcher.Pending> batch) {
+        batch.forEach(pending -> pending.result().tryEmitValue(
+                Recommendation.builder().activityId(pending.activity().getActivityId()).build()));
+        return Mono.empty();
+    }
+
+    @Test
+    void submit_SlowBatchesHoldWorkInsteadOfFailingThePipeline() {
+        Sinks.Empty<Void> release = Sinks.empty();
+        AtomicInteger batches = new AtomicInteger();
+        batcher = new RecommendationBatcher(1, Duration.ofMillis(10), 1, Duration.ofSeconds(10),
+                batch -> {
+                    batches.incrementAndGet();
+                    // Every batch waits on the slow call; the timer keeps firing meanwhile
+                    return release.asMono().then(Mono.defer(() -> completeAll(batch)));
+                });
+
+        Mono<List<Recommendation>> results = Flux.range(0, 5)
+                .flatMap(i -> batcher.submit(createActivity("a-" + i), "key-" + i))
+                .collectList()
+                .cache();
+        results.subscribe();
+
+        Mono.delay(Duration.ofMillis(200)).block();
+        assertEquals(1, batches.get(), "only one batch may be in flight");
+        release.tryEmitEmpty();
+
+        List<Recommendation> recommendations = results.block(Duration.ofSeconds(5));
+        assertNotNull(recommendations);
+        assertEquals(5, recommendations.size());
+        assertEquals(5, batches.get());
+    }
+
+    @Test
+    void submit_HandlerNeverCompletes_CallerTimesOut() {
+        batcher = new RecommendationBatcher(2, Duration.ofMillis(10), 1, Duration.ofMillis(200),
+                batch -> Mono.never());
+
+        Exception error = assertThrows(Exception.class,
+                () -> batcher.submit(createActivity("a-1"), "key").block(Duration.ofSeconds(5)));
+        assertInstanceOf(TimeoutException.class, error.getCause() != null ? error.getCause() : error);
+    }
+
+    @Test
+    void submit_HandlerThrows_FailsBatchAndKeepsAccepting() {
+        AtomicInteger calls = new AtomicInteger();
+        batcher = new RecommendationBatcher(1, Duration.ofMillis(10), 1, Duration.ofSeconds(5),
+                batch -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return completeAll(batch);
+                });
+
+        assertThrows(IllegalStateException.class, () -> batcher.submit(createActivity("a-1"), "key").block());
+        Recommendation next = batcher.submit(createActivity("a-2"), "key").block(Duration.ofSeconds(5));
+        assertNotNull(next);
+        assertEquals("a-2", next.getActivityId());
+    }
+}
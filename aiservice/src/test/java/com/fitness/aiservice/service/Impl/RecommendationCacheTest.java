@@ -0,0 +1,133 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.Recommendation;
+import com.fitness.aiservice.model.RecommendationTemplate;
+import com.fitness.aiservice.repository.RecommendationTemplateRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationCacheTest {
+
+    @Mock
+    private RecommendationTemplateRepository templateRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private RecommendationCache recommendationCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recommendationCache = new RecommendationCache(
+                Caffeine.newBuilder().maximumSize(100).build(), templateRepository, meterRegistry);
+        ReflectionTestUtils.setField(recommendationCache, "enabled", true);
+        ReflectionTestUtils.setField(recommendationCache, "durationBandMinutes", 10);
+        ReflectionTestUtils.setField(recommendationCache, "calorieBand", 50);
+    }
+
+    private Activity createActivity(String activityId, int duration, int calories, Map<String, Object> metrics) {
+        Activity activity = new Activity();
+        activity.setActivityId(activityId);
+        activity.setUserId("user-" + activityId);
+        activity.setType("RUNNING");
+        activity.setDuration(duration);
+        activity.setCaloriesBurned(calories);
+        activity.setAdditionalMetrics(metrics);
+        return activity;
+    }
+
+    private Recommendation createRecommendation(Activity activity) {
+        return Recommendation.builder()
+                .activityId(activity.getActivityId())
+                .userId(activity.getUserId())
+                .activityType("RUNNING")
+                .recommendation("Overall: Solid run")
+                .improvements(List.of("Pace: Negative splits"))
+                .suggestions(List.of("Intervals: 6x400m"))
+                .safety(List.of("Stay hydrated"))
+                .build();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("ai.recommendation.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    void keyFor_SimilarActivities_ShareFeatureKey() {
+        Activity first = createActivity("a1", 28, 310, Map.of("pace", 5.2, "heartRate", 150));
+        Activity second = createActivity("a2", 32, 290, Map.of("HeartRate", 162, "pace", 4.9));
+
+        assertEquals("RUNNING|d30|c300|heartrate,pace", recommendationCache.keyFor(first));
+        assertEquals(recommendationCache.keyFor(first), recommendationCache.keyFor(second));
+    }
+
+    @Test
+    void keyFor_DifferentMetricKeys_ProduceDifferentKeys() {
+        Activity withoutMetrics = createActivity("a1", 30, 300, null);
+        Activity withMetrics = createActivity("a2", 30, 300, Map.of("pace", 5.0));
+
+        assertEquals("RUNNING|d30|c300|-", recommendationCache.keyFor(withoutMetrics));
+        assertNotEquals(recommendationCache.keyFor(withoutMetrics), recommendationCache.keyFor(withMetrics));
+    }
+
+    @Test
+    void lookup_AfterStore_ReturnsTemplatePersonalizedForNewActivity() {
+        Activity original = createActivity("a1", 30, 300, null);
+        Activity similar = createActivity("a2", 31, 305, null);
+        String key = recommendationCache.keyFor(original);
+        recommendationCache.store(key, createRecommendation(original));
+
+        Optional<Recommendation> result = recommendationCache.lookup(key, similar);
+
+        assertTrue(result.isPresent());
+        assertEquals("a2", result.get().getActivityId());
+        assertEquals("user-a2", result.get().getUserId());
+        assertEquals("Overall: Solid run", result.get().getRecommendation());
+        assertEquals(1.0, count("memory-hit"));
+        verify(templateRepository).save(any(RecommendationTemplate.class));
+        verify(templateRepository, never()).findById(any());
+    }
+
+    @Test
+    void lookup_MemoryMiss_FallsBackToMongoAndPromotes() {
+        Activity activity = createActivity("a1", 30, 300, null);
+        String key = recommendationCache.keyFor(activity);
+        RecommendationTemplate template = RecommendationTemplate.from(key, createRecommendation(activity));
+        when(templateRepository.findById(key)).thenReturn(Optional.of(template));
+
+        assertTrue(recommendationCache.lookup(key, activity).isPresent());
+        assertTrue(recommendationCache.lookup(key, activity).isPresent());
+
+        verify(templateRepository, times(1)).findById(key);
+        assertEquals(1.0, count("mongo-hit"));
+        assertEquals(1.0, count("memory-hit"));
+    }
+
+    @Test
+    void lookup_MongoUnavailable_CountsAsMiss() {
+        Activity activity = createActivity("a1", 30, 300, null);
+        String key = recommendationCache.keyFor(activity);
+        when(templateRepository.findById(key)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertTrue(recommendationCache.lookup(key, activity).isEmpty());
+        assertEquals(1.0, count("miss"));
+    }
+}
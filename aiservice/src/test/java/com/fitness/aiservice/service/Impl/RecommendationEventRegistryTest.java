@@ -0,0 +1,141 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Recommendation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationEventRegistryTest {
+
+    private MeterRegistry meterRegistry;
+
+    private RecommendationEventRegistry eventRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventRegistry = new RecommendationEventRegistry(meterRegistry);
+        ReflectionTestUtils.setField(eventRegistry, "userBufferSize", 2);
+    }
+
+    private Recommendation createRecommendation(String activityId, String userId) {
+        return Recommendation.builder()
+                .activityId(activityId)
+                .userId(userId)
+                .recommendation("Overall:Nice work")
+                .build();
+    }
+
+    private double subscriptions(String key) {
+        return meterRegistry.get("ai.recommendation.subscriptions").tag("key", key).gauge().value();
+    }
+
+    @Test
+    void awaitActivity_AlreadyStored_ReturnsWithoutWaiting() {
+        Recommendation stored = createRecommendation("a1", "u1");
+
+        StepVerifier.create(eventRegistry.awaitActivity("a1", Mono.just(stored), Duration.ofSeconds(5)))
+                .expectNext(stored)
+                .verifyComplete();
+        assertEquals(0.0, subscriptions("activity"));
+    }
+
+    @Test
+    void awaitActivity_PublishedLater_DeliversToWaiter() {
+        Recommendation published = createRecommendation("a1", "u1");
+
+        StepVerifier.create(eventRegistry.awaitActivity("a1", Mono.empty(), Duration.ofSeconds(5)))
+                .then(() -> eventRegistry.publish(published))
+                .expectNext(published)
+                .verifyComplete();
+        assertEquals(0.0, subscriptions("activity"));
+    }
+
+    @Test
+    void awaitActivity_PublishedDuringLookup_IsNotMissed() {
+        Recommendation published = createRecommendation("a1", "u1");
+        Mono<Recommendation> racingLookup = Mono.fromRunnable(() -> eventRegistry.publish(published));
+
+        StepVerifier.create(eventRegistry.awaitActivity("a1", racingLookup, Duration.ofSeconds(5)))
+                .expectNext(published)
+                .verifyComplete();
+    }
+
+    @Test
+    void awaitActivity_Timeout_CompletesEmptyAndUnregisters() {
+        StepVerifier.create(eventRegistry.awaitActivity("a1", Mono.empty(), Duration.ofMillis(50)))
+                .verifyComplete();
+        assertEquals(0.0, subscriptions("activity"));
+    }
+
+    @Test
+    void userRecommendations_OnlyReceivesOwnUsersEvents() {
+        Recommendation mine = createRecommendation("a1", "u1");
+
+        StepVerifier.create(eventRegistry.userRecommendations("u1").take(1))
+                .then(() -> {
+                    eventRegistry.publish(createRecommendation("a2", "u2"));
+                    eventRegistry.publish(mine);
+                })
+                .expectNext(mine)
+                .verifyComplete();
+        assertEquals(0.0, subscriptions("user"));
+    }
+
+    @Test
+    void userRecommendations_SlowSubscriber_KeepsOnlyNewestEvents() {
+        StepVerifier.create(eventRegistry.userRecommendations("u1"), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 5; i++) {
+                        eventRegistry.publish(createRecommendation("a" + i, "u1"));
+                    }
+                })
+                .thenRequest(2)
+                .assertNext(recommendation -> assertEquals("a4", recommendation.getActivityId()))
+                .assertNext(recommendation -> assertEquals("a5", recommendation.getActivityId()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void userRecommendations_OneSubscriberCancels_OthersKeepTheStream() {
+        Recommendation later = createRecommendation("a1", "u1");
+        Disposable first = eventRegistry.userRecommendations("u1").subscribe();
+
+        StepVerifier.create(eventRegistry.userRecommendations("u1").take(1))
+                .then(() -> {
+                    first.dispose();
+                    assertEquals(1.0, subscriptions("user"));
+                    eventRegistry.publish(later);
+                })
+                .expectNext(later)
+                .verifyComplete();
+        assertEquals(0.0, subscriptions("user"));
+    }
+
+    @Test
+    void publish_ConcurrentPublishers_NeverThrowAndDeliverEverything() {
+        ReflectionTestUtils.setField(eventRegistry, "userBufferSize", 1000);
+
+        StepVerifier.create(eventRegistry.userRecommendations("u1").take(400))
+                .then(() -> Flux.range(0, 400)
+                        .parallel(8)
+                        .runOn(Schedulers.parallel())
+                        .doOnNext(i -> eventRegistry.publish(createRecommendation("a" + i, "u1")))
+                        .sequential()
+                        .blockLast())
+                .expectNextCount(400)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,85 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fitness.aiservice.model.Activity;
+import com.fitness.aiservice.model.Recommendation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleBasedRecommendationEngineTest {
+
+    private RuleBasedRecommendationEngine ruleEngine;
+
+    @BeforeEach
+    void setUp() {
+        ruleEngine = new RuleBasedRecommendationEngine();
+        ReflectionTestUtils.setField(ruleEngine, "trivialMaxMinutes", 10);
+        ReflectionTestUtils.setField(ruleEngine, "trivialMaxCalories", 50);
+    }
+
+    private Activity createActivity(String type, Integer duration, Integer calories, Map<String, Object> metrics) {
+        Activity activity = new Activity();
+        activity.setActivityId("activity-1");
+        activity.setUserId("user-123");
+        activity.setType(type);
+        activity.setDuration(duration);
+        activity.setCaloriesBurned(calories);
+        activity.setAdditionalMetrics(metrics);
+        return activity;
+    }
+
+    @Test
+    void isTrivial_ShortOrLightActivities() {
+        assertTrue(ruleEngine.isTrivial(createActivity("WALKING", 5, 30, null)));
+        assertTrue(ruleEngine.isTrivial(createActivity("WALKING", 30, 20, null)));
+        assertFalse(ruleEngine.isTrivial(createActivity("RUNNING", 30, 300, null)));
+    }
+
+    @Test
+    void isTrivial_MissingValuesAreUnknownNotSmall() {
+        assertFalse(ruleEngine.isTrivial(createActivity("RUNNING", 120, null, null)));
+        assertFalse(ruleEngine.isTrivial(createActivity("RUNNING", null, 900, null)));
+        assertFalse(ruleEngine.isTrivial(createActivity("RUNNING", null, null, null)));
+        assertTrue(ruleEngine.isTrivial(createActivity("WALKING", 5, null, null)));
+    }
+
+    @Test
+    void recommend_ShortRunWithoutMetrics_SuggestsLongerSessionsAndTracking() {
+        Recommendation recommendation = ruleEngine.recommend(createActivity("RUNNING", 12, 120, null));
+
+        assertEquals("activity-1", recommendation.getActivityId());
+        assertEquals("user-123", recommendation.getUserId());
+        assertTrue(recommendation.getRecommendation().startsWith("Overall:A short 12 minute running session."));
+        assertTrue(recommendation.getImprovements().contains(
+                "Duration: Build towards 20-90 minutes for a typical running session"));
+        assertTrue(recommendation.getImprovements().contains(
+                "Tracking: Record heart rate or pace to get more specific feedback"));
+        assertEquals(2, recommendation.getSuggestions().size());
+        assertTrue(recommendation.getSafety().contains("Stay hydrated"));
+    }
+
+    @Test
+    void recommend_HighHeartRateAndSlowPace_AddsSafetyAndPaceAdvice() {
+        Recommendation recommendation = ruleEngine.recommend(createActivity("running", 40, 400,
+                Map.of("heart_rate", 175, "pace", "7.5")));
+
+        assertTrue(recommendation.getRecommendation().contains("Heart Rate:Average heart rate of 175 bpm."));
+        assertTrue(recommendation.getRecommendation().contains("Pace:Average pace of 7.5."));
+        assertTrue(recommendation.getImprovements().contains(
+                "Pace: Add one interval session a week to bring your pace down"));
+        assertEquals("Your heart rate was high; keep most sessions at a conversational effort",
+                recommendation.getSafety().get(0));
+    }
+
+    @Test
+    void recommend_UnknownType_UsesGenericProfile() {
+        Recommendation recommendation = ruleEngine.recommend(createActivity("CLIMBING", 45, 400, null));
+
+        assertEquals("CLIMBING", recommendation.getActivityType());
+        assertTrue(recommendation.getRecommendation().contains("within the typical range"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.fitness.aiservice.service.Impl;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingRecommendationParserTest {
+
+    private static final String ANALYSIS = """
+            ```json
+            {
+              "analysis": {
+                "overall": "Good tempo run",
+                "heartRate": "Mostly zone 3 – steady"
+              },
+              "improvements": [
+                {"area": "Pace", "recommendation": "Negative split the last 2 km"}
+              ],
+              "suggestions": [
+                {"workout": "Intervals", "description": "6 x 400m"},
+                {"workout": "Long Run", "description": "90 minutes easy"}
+              ],
+              "safety": ["Hydrate", "Cool down"]
+            }
+            ```
+            """;
+
+    @Test
+    void feed_ChunksSplitAnywhere_ProduceAllSections() throws Exception {
+        for (int chunkSize : new int[]{1, 3, 7, 64, ANALYSIS.length()}) {
+            StreamingRecommendationParser parser = new StreamingRecommendationParser();
+            for (int i = 0; i < ANALYSIS.length(); i += chunkSize) {
+                parser.feed(ANALYSIS.substring(i, Math.min(ANALYSIS.length(), i + chunkSize)));
+            }
+            parser.finish();
+
+            assertEquals("Good tempo run", parser.getAnalysis().get("overall"));
+            assertEquals("Mostly zone 3 – steady", parser.getAnalysis().get("heartRate"));
+            assertEquals(List.of("Pace: Negative split the last 2 km"), parser.getImprovements());
+            assertEquals(List.of("Intervals: 6 x 400m", "Long Run: 90 minutes easy"), parser.getSuggestions());
+            assertEquals(List.of("Hydrate", "Cool down"), parser.getSafety());
+        }
+    }
+
+    @Test
+    void feed_CapturesSectionsBeforeTheObjectCompletes() throws Exception {
+        StreamingRecommendationParser parser = new StreamingRecommendationParser();
+        int cut = ANALYSIS.indexOf("\"improvements\"");
+
+        parser.feed(ANALYSIS.substring(0, cut));
+
+        assertTrue(parser.hasSection());
+        assertFalse(parser.isComplete());
+        assertEquals("Good tempo run", parser.getAnalysis().get("overall"));
+    }
+
+    @Test
+    void finish_TruncatedStream_Throws() throws Exception {
+        StreamingRecommendationParser parser = new StreamingRecommendationParser();
+        parser.feed(ANALYSIS.substring(0, ANALYSIS.length() / 2));
+
+        assertThrows(JsonParseException.class, parser::finish);
+    }
+}
@@ -2,17 +2,27 @@ package com.fitness.apigateway;
 
 import com.fitness.apigateway.user.RegisterRequest;
 import com.fitness.apigateway.user.UserService;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
+/**
+ * Registers Keycloak users in user-service on their first request and forwards their id as
+ * X-User-ID. Runs after the resource server has verified the bearer token, so the claims are read
+ * from the decoded {@link Jwt} in the security context rather than parsed again.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
@@ -21,58 +31,47 @@ public class KeycloakUserSyncFilter implements WebFilter {
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String token = exchange.getRequest().getHeaders().getFirst("Authorization");
-        String userId = exchange.getRequest().getHeaders().getFirst("X-User-ID");
-        RegisterRequest registerRequest = getUserDetails(token);
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(KeycloakUserSyncFilter::jwtOf)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(jwt -> jwt
+                        .map(token -> syncAndForward(token, exchange, chain))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
 
+    private Mono<Void> syncAndForward(Jwt jwt, ServerWebExchange exchange, WebFilterChain chain) {
+        String userId = exchange.getRequest().getHeaders().getFirst("X-User-ID");
         if (userId == null) {
-            userId = registerRequest.getKeycloakId();
+            userId = jwt.getSubject();
         }
-
-        if (userId != null && token != null) {
-            String finalUserId = userId;
-            return userService.validateUser(userId)
-                    .flatMap(exist -> {
-                        if (!exist) {
-                            // Register User
-
-                            if (registerRequest != null) {
-                                return userService.registerUser(registerRequest)
-                                        .then(Mono.empty());
-                            } else {
-                                return Mono.empty();
-                            }
-                        } else {
-                            log.info("User already exist, Skipping sync.");
-                            return Mono.empty();
-                        }
-                    })
-                    .then(Mono.defer(() -> {
-                        ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
-                                .header("X-User-ID", finalUserId)
-                                .build();
-                        return chain.filter(exchange.mutate().request(mutatedRequest).build());
-                    }));
+        if (userId == null) {
+            return chain.filter(exchange);
         }
-        return chain.filter(exchange);
+        String finalUserId = userId;
+        // The registration payload is only built on a cache miss
+        return userService.syncUser(userId, () -> getUserDetails(jwt))
+                .then(Mono.defer(() -> {
+                    ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
+                            .header("X-User-ID", finalUserId)
+                            .build();
+                    return chain.filter(exchange.mutate().request(mutatedRequest).build());
+                }));
     }
 
-    private RegisterRequest getUserDetails(String token) {
-        try {
-            String tokenWithoutBearer = token.replace("Bearer ", "").trim();
-            SignedJWT signedJWT = SignedJWT.parse(tokenWithoutBearer);
-            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+    private static Optional<Jwt> jwtOf(Authentication authentication) {
+        return authentication instanceof JwtAuthenticationToken jwtAuthentication
+                ? Optional.of(jwtAuthentication.getToken())
+                : Optional.empty();
+    }
 
-            RegisterRequest registerRequest = new RegisterRequest();
-            registerRequest.setEmail(claims.getStringClaim("email"));
-            registerRequest.setKeycloakId(claims.getStringClaim("sub"));
-            registerRequest.setPassword("dummy@123123");
-            registerRequest.setFirstName(claims.getStringClaim("given_name"));
-            registerRequest.setLastName(claims.getStringClaim("family_name"));
-            return registerRequest;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
+    private RegisterRequest getUserDetails(Jwt jwt) {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setEmail(jwt.getClaimAsString("email"));
+        registerRequest.setKeycloakId(jwt.getSubject());
+        registerRequest.setPassword("dummy@123123");
+        registerRequest.setFirstName(jwt.getClaimAsString("given_name"));
+        registerRequest.setLastName(jwt.getClaimAsString("family_name"));
+        return registerRequest;
     }
 }
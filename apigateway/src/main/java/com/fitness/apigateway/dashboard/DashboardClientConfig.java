@@ -0,0 +1,23 @@
+package com.fitness.apigateway.dashboard;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class DashboardClientConfig {
+
+    @Bean
+    public WebClient activityServiceWebClient(WebClient.Builder webClientBuilder) {
+        return webClientBuilder.clone()
+                .baseUrl("http://ACTIVITY-SERVICE")
+                .build();
+    }
+
+    @Bean
+    public WebClient aiServiceWebClient(WebClient.Builder webClientBuilder) {
+        return webClientBuilder.clone()
+                .baseUrl("http://AI-SERVICE")
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.fitness.apigateway.dashboard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    /**
+     * The user is the subject of the verified token; a client-sent X-User-ID is ignored, since it would
+     * let a caller read someone else's dashboard. Rate limited by
+     * {@link com.fitness.apigateway.ratelimit.DashboardRateLimitFilter}.
+     * Partial results are still a 200; only when every selected section failed is the answer a 502.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<DashboardResponse>> getDashboard(@AuthenticationPrincipal Jwt jwt,
+                                                                @RequestParam(required = false) List<String> fields) {
+        Set<DashboardSection> sections = DashboardSection.parse(fields);
+        return dashboardService.getDashboard(jwt.getSubject(), sections)
+                .map(response -> response.isPartial() && response.getErrors().size() == sections.size()
+                        ? ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(response)
+                        : ResponseEntity.ok(response));
+    }
+}
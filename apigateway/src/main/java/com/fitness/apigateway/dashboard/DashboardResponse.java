@@ -0,0 +1,26 @@
+package com.fitness.apigateway.dashboard;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Downstream bodies are passed through as JSON; sections that were not selected are omitted, and
+ * sections that failed or timed out are listed in {@code errors} instead.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardResponse {
+    private JsonNode user;
+    private JsonNode activities;
+    private JsonNode recommendations;
+    private Map<String, String> errors;
+
+    public boolean isPartial() {
+        return errors != null && !errors.isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.fitness.apigateway.dashboard;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The parts of the dashboard a client can select with {@code fields}; each is one downstream call.
+ */
+public enum DashboardSection {
+    USER,
+    ACTIVITIES,
+    RECOMMENDATIONS;
+
+    public String fieldName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses {@code fields=user,activities}. No fields selects every section.
+     */
+    public static Set<DashboardSection> parse(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return EnumSet.allOf(DashboardSection.class);
+        }
+        Set<DashboardSection> sections = EnumSet.noneOf(DashboardSection.class);
+        for (String field : fields) {
+            if (field.isBlank()) {
+                continue;
+            }
+            try {
+                sections.add(valueOf(field.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown dashboard field: " + field);
+            }
+        }
+        return sections.isEmpty() ? EnumSet.allOf(DashboardSection.class) : sections;
+    }
+}
@@ -0,0 +1,133 @@
+package com.fitness.apigateway.dashboard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the home screen in one round trip. The selected sections are requested from user-,
+ * activity- and ai-service in parallel, each under its own timeout, so the response takes as long
+ * as the slowest leg rather than the sum of all of them. A failed leg leaves its section empty and
+ * is reported in {@link DashboardResponse#getErrors()}.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    private final WebClient userServiceWebClient;
+    private final WebClient activityServiceWebClient;
+    private final WebClient aiServiceWebClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.dashboard.user-timeout:1s}")
+    private Duration userTimeout;
+
+    @Value("${gateway.dashboard.activities-timeout:2s}")
+    private Duration activitiesTimeout;
+
+    @Value("${gateway.dashboard.recommendations-timeout:2s}")
+    private Duration recommendationsTimeout;
+
+    @Value("${gateway.dashboard.activity-limit:10}")
+    private int activityLimit;
+
+    public DashboardService(@Qualifier("userServiceWebClient") WebClient userServiceWebClient,
+                            @Qualifier("activityServiceWebClient") WebClient activityServiceWebClient,
+                            @Qualifier("aiServiceWebClient") WebClient aiServiceWebClient,
+                            MeterRegistry meterRegistry) {
+        this.userServiceWebClient = userServiceWebClient;
+        this.activityServiceWebClient = activityServiceWebClient;
+        this.aiServiceWebClient = aiServiceWebClient;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Mono<DashboardResponse> getDashboard(String userId, Set<DashboardSection> sections) {
+        Map<String, String> errors = new ConcurrentHashMap<>();
+        Mono<Optional<JsonNode>> user = leg(DashboardSection.USER, sections, userTimeout, errors,
+                () -> userServiceWebClient.get()
+                        .uri("/api/users/{userId}", userId)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .map(DashboardService::withoutCredentials));
+        Mono<Optional<JsonNode>> activities = leg(DashboardSection.ACTIVITIES, sections, activitiesTimeout, errors,
+                () -> activityServiceWebClient.get()
+                        .uri(uriBuilder -> uriBuilder.path("/api/activities/track")
+                                .queryParam("limit", activityLimit)
+                                .build())
+                        .header("X-User-ID", userId)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class));
+        Mono<Optional<JsonNode>> recommendations = leg(DashboardSection.RECOMMENDATIONS, sections,
+                recommendationsTimeout, errors,
+                () -> aiServiceWebClient.get()
+                        .uri("/api/recommendations/user/{userId}", userId)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class));
+
+        return Mono.zip(user, activities, recommendations)
+                .map(legs -> DashboardResponse.builder()
+                        .user(legs.getT1().orElse(null))
+                        .activities(legs.getT2().orElse(null))
+                        .recommendations(legs.getT3().orElse(null))
+                        .errors(errors.isEmpty() ? null : new LinkedHashMap<>(errors))
+                        .build());
+    }
+
+    private Mono<Optional<JsonNode>> leg(DashboardSection section, Set<DashboardSection> selected, Duration timeout,
+                                         Map<String, String> errors, Supplier<Mono<JsonNode>> call) {
+        if (!selected.contains(section)) {
+            return Mono.just(Optional.empty());
+        }
+        return Mono.defer(call)
+                .timeout(timeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(body -> record(section, "success"))
+                .onErrorResume(e -> {
+                    String reason = describe(e, timeout);
+                    log.warn("⚠️ Dashboard section {} unavailable: {}", section.fieldName(), reason);
+                    record(section, e instanceof TimeoutException ? "timeout" : "error");
+                    errors.put(section.fieldName(), reason);
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private void record(DashboardSection section, String outcome) {
+        meterRegistry.counter("gateway.dashboard.legs", "section", section.fieldName(), "outcome", outcome)
+                .increment();
+    }
+
+    private static String describe(Throwable e, Duration timeout) {
+        if (e instanceof TimeoutException) {
+            return "Timed out after " + timeout.toMillis() + "ms";
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return "Upstream responded " + responseException.getStatusCode().value();
+        }
+        return "Upstream unavailable";
+    }
+
+    // The user-service profile carries the stored password; it never leaves the gateway
+    private static JsonNode withoutCredentials(JsonNode user) {
+        if (user instanceof ObjectNode node) {
+            node.remove("password");
+        }
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package com.fitness.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Applies the {@link InMemoryRateLimiter} to /api/dashboard. The dashboard is served by the gateway
+ * itself rather than routed, so the RequestRateLimiter route filter never sees it; this does the same
+ * check with the same key resolver and answers 429 with the same headers. Runs after the security
+ * chain, so requests are keyed by the verified subject.
+ */
+@Component
+public class DashboardRateLimitFilter implements WebFilter {
+
+    static final String ROUTE_ID = "dashboard";
+
+    private static final String PATH = "/api/dashboard";
+
+    private final InMemoryRateLimiter rateLimiter;
+    private final KeyResolver keyResolver;
+
+    public DashboardRateLimitFilter(InMemoryRateLimiter rateLimiter,
+                                    @Qualifier("userKeyResolver") KeyResolver keyResolver,
+                                    @Value("${gateway.dashboard.rate-limit.replenish-rate:5}") int replenishRate,
+                                    @Value("${gateway.dashboard.rate-limit.burst-capacity:10}") int burstCapacity) {
+        this.rateLimiter = rateLimiter;
+        this.keyResolver = keyResolver;
+        InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        rateLimiter.getConfig().put(ROUTE_ID, config);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!path.equals(PATH) && !path.startsWith(PATH + "/")) {
+            return chain.filter(exchange);
+        }
+        return keyResolver.resolve(exchange)
+                .flatMap(key -> rateLimiter.isAllowed(ROUTE_ID, key))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                // No key to limit by: the security chain has already rejected anything unauthenticated
+                .flatMap(response -> response
+                        .map(limit -> limited(limit, exchange, chain))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    private Mono<Void> limited(RateLimiter.Response response, ServerWebExchange exchange, WebFilterChain chain) {
+        response.getHeaders().forEach((name, value) -> exchange.getResponse().getHeaders().add(name, value));
+        if (response.isAllowed()) {
+            return chain.filter(exchange);
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        return exchange.getResponse().setComplete();
+    }
+}
@@ -0,0 +1,117 @@
+package com.fitness.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter kept in gateway memory, so no Redis is needed. Each (route, key) pair
+ * holds a single theoretical arrival time updated by compare-and-set (GCRA), which makes a check
+ * lock-free and one long per client. Idle buckets are evicted; an evicted bucket was full anyway.
+ * Limits are per gateway instance.
+ *
+ * <p>Routes configure it through the RequestRateLimiter filter with
+ * {@code in-memory-rate-limiter.replenish-rate}, {@code burst-capacity} and {@code requested-tokens};
+ * routes without their own values use the gateway.rate-limit defaults.
+ */
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Cache<String, AtomicLong> buckets;
+    private final Config defaultConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> allowedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deniedCounters = new ConcurrentHashMap<>();
+
+    public InMemoryRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry,
+                               @Value("${gateway.rate-limit.replenish-rate:10}") int replenishRate,
+                               @Value("${gateway.rate-limit.burst-capacity:20}") int burstCapacity,
+                               @Value("${gateway.rate-limit.max-keys:100000}") long maxKeys,
+                               @Value("${gateway.rate-limit.idle-ttl:10m}") Duration idleTtl) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry;
+        this.defaultConfig = new Config();
+        this.defaultConfig.setReplenishRate(replenishRate);
+        this.defaultConfig.setBurstCapacity(burstCapacity);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTtl)
+                .build();
+        Gauge.builder("gateway.ratelimit.keys", buckets, Cache::estimatedSize)
+                .description("Clients with a live rate-limit bucket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        return Mono.just(check(routeId, id, config, System.nanoTime()));
+    }
+
+    Response check(String routeId, String id, Config config, long now) {
+        long interval = NANOS_PER_SECOND / Math.max(1, config.getReplenishRate());
+        long cost = interval * config.getRequestedTokens();
+        long capacity = interval * Math.max(config.getBurstCapacity(), config.getRequestedTokens());
+        AtomicLong arrival = buckets.get(routeId + "|" + id, key -> new AtomicLong(now));
+
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + cost;
+            long backlog = next - now;
+            if (backlog > capacity) {
+                counter(deniedCounters, routeId, "denied").increment();
+                return new Response(false, headers(config, 0, backlog - capacity));
+            }
+            if (arrival.compareAndSet(current, next)) {
+                counter(allowedCounters, routeId, "allowed").increment();
+                return new Response(true, headers(config, (capacity - backlog) / interval, 0));
+            }
+        }
+    }
+
+    private Map<String, String> headers(Config config, long remaining, long waitNanos) {
+        if (waitNanos <= 0) {
+            return Map.of("X-RateLimit-Remaining", String.valueOf(remaining),
+                    "X-RateLimit-Replenish-Rate", String.valueOf(config.getReplenishRate()),
+                    "X-RateLimit-Burst-Capacity", String.valueOf(config.getBurstCapacity()));
+        }
+        long retryAfterSeconds = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        return Map.of("X-RateLimit-Remaining", "0",
+                "X-RateLimit-Replenish-Rate", String.valueOf(config.getReplenishRate()),
+                "X-RateLimit-Burst-Capacity", String.valueOf(config.getBurstCapacity()),
+                HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+
+    private Counter counter(Map<String, Counter> counters, String routeId, String outcome) {
+        return counters.computeIfAbsent(routeId, route -> Counter.builder("gateway.ratelimit.requests")
+                .tag("route", route)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    @Data
+    public static class Config {
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fitness.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * Limits per authenticated subject. The verified principal wins over X-User-ID, which a client
+     * could rotate to dodge its limit; anonymous requests are limited per remote address.
+     */
+    @Bean
+    public KeyResolver userKeyResolver() {
+        return exchange -> exchange.getPrincipal()
+                .map(Principal::getName)
+                .switchIfEmpty(Mono.defer(() ->
+                        Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst("X-User-ID"))))
+                .switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(exchange.getRequest().getRemoteAddress())
+                        .map(InetSocketAddress::getHostString)));
+    }
+}
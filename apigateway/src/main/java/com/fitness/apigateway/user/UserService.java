@@ -1,5 +1,6 @@
 package com.fitness.apigateway.user;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -8,11 +9,46 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserService {
     private final WebClient userServiceWebClient;
+    private final AsyncCache<String, Boolean> syncedUserCache;
+
+    /**
+     * Makes sure the user exists in user-service, registering them on first sight. Known users are
+     * answered from the local cache; concurrent first requests for the same user share one
+     * validate/register round trip. The registration is only built when it is needed.
+     */
+    public Mono<Void> syncUser(String userId, Supplier<RegisterRequest> registration) {
+        // suppressCancel: one client going away must not cancel the load other requests wait on
+        CompletableFuture<Boolean> synced = syncedUserCache.get(userId,
+                (id, executor) -> validateOrRegister(id, registration).toFuture());
+        return Mono.fromFuture(synced, true)
+                // Not registered: drop the entry so the next request tries again
+                .switchIfEmpty(Mono.fromRunnable(() -> syncedUserCache.asMap().remove(userId, synced)))
+                .then();
+    }
+
+    private Mono<Boolean> validateOrRegister(String userId, Supplier<RegisterRequest> registration) {
+        log.debug("Synced user cache miss for userId: {}", userId);
+        return validateUser(userId)
+                .flatMap(exist -> {
+                    if (exist) {
+                        log.info("User already exist, Skipping sync.");
+                        return Mono.just(true);
+                    }
+                    RegisterRequest registerRequest = registration.get();
+                    if (registerRequest == null) {
+                        return Mono.empty();
+                    }
+                    return registerUser(registerRequest).thenReturn(true);
+                });
+    }
 
     public Mono<Boolean> validateUser(String userId) {
         log.info("Calling User Validation API for userId: {}", userId);
@@ -0,0 +1,36 @@
+package com.fitness.apigateway.user;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class UserSyncCacheConfig {
+
+    @Value("${gateway.user-cache.max-size:50000}")
+    private long maxSize;
+
+    @Value("${gateway.user-cache.ttl:30m}")
+    private Duration ttl;
+
+    /**
+     * Users known to exist in user-service. Only positive results are cached; the TTL bounds how
+     * long a user deleted in user-service is still let through without re-registration.
+     */
+    @Bean
+    public AsyncCache<String, Boolean> syncedUserCache(MeterRegistry meterRegistry) {
+        AsyncCache<String, Boolean> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "syncedUsers");
+        return cache;
+    }
+}
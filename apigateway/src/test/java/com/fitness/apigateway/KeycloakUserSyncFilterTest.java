@@ -0,0 +1,87 @@
+package com.fitness.apigateway;
+
+import com.fitness.apigateway.user.RegisterRequest;
+import com.fitness.apigateway.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeycloakUserSyncFilterTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private KeycloakUserSyncFilter syncFilter;
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+    private final WebFilterChain chain = exchange -> {
+        chainCalls.incrementAndGet();
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    private Jwt createJwt() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("kc-123")
+                .claim("email", "user@example.com")
+                .claim("given_name", "Jane")
+                .claim("family_name", "Doe")
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filter_AuthenticatedRequest_SyncsSubjectAndForwardsUserId() {
+        when(userService.syncUser(eq("kc-123"), any())).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/activities/track"));
+
+        syncFilter.filter(exchange, chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new JwtAuthenticationToken(createJwt())))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(1, chainCalls.get());
+        assertEquals("kc-123", forwarded.get().getRequest().getHeaders().getFirst("X-User-ID"));
+        ArgumentCaptor<Supplier<RegisterRequest>> registration = ArgumentCaptor.forClass(Supplier.class);
+        verify(userService).syncUser(eq("kc-123"), registration.capture());
+        RegisterRequest registerRequest = registration.getValue().get();
+        assertEquals("kc-123", registerRequest.getKeycloakId());
+        assertEquals("user@example.com", registerRequest.getEmail());
+        assertEquals("Doe", registerRequest.getLastName());
+    }
+
+    @Test
+    void filter_Unauthenticated_PassesThroughWithoutSync() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+        syncFilter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        assertEquals(1, chainCalls.get());
+        verifyNoInteractions(userService);
+    }
+}
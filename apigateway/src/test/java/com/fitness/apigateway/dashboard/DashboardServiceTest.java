@@ -0,0 +1,146 @@
+package com.fitness.apigateway.dashboard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AtomicInteger aiCalls;
+
+    private String lastActivityUserHeader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aiCalls = new AtomicInteger();
+    }
+
+    private static WebClient respondingWith(HttpStatus status, String body, Duration delay) {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.delay(delay).thenReturn(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build()))
+                .build();
+    }
+
+    private DashboardService createService(WebClient user, WebClient activities, WebClient ai) {
+        DashboardService service = new DashboardService(user, activities, ai, meterRegistry);
+        ReflectionTestUtils.setField(service, "userTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "activitiesTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "recommendationsTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "activityLimit", 10);
+        return service;
+    }
+
+    private WebClient activityClient() {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    lastActivityUserHeader = request.headers().getFirst("X-User-ID");
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"activities\":[],\"hasMore\":false}")
+                            .build());
+                })
+                .build();
+    }
+
+    private WebClient countingAiClient() {
+        return WebClient.builder()
+                .exchangeFunction(request -> {
+                    aiCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("[]")
+                            .build());
+                })
+                .build();
+    }
+
+    @Test
+    void getDashboard_FansOutInParallel() {
+        Duration legDelay = Duration.ofMillis(150);
+        DashboardService service = createService(
+                respondingWith(HttpStatus.OK, "{\"id\":\"user-1\",\"password\":\"hash\"}", legDelay),
+                respondingWith(HttpStatus.OK, "{\"activities\":[]}", legDelay),
+                respondingWith(HttpStatus.OK, "[]", legDelay));
+
+        // Three 150ms legs answer within 150ms of virtual time only if they overlap
+        StepVerifier.withVirtualTime(() -> service.getDashboard("user-1", EnumSet.allOf(DashboardSection.class)))
+                .thenAwait(legDelay)
+                .assertNext(response -> {
+                    assertFalse(response.isPartial());
+                    assertEquals("user-1", response.getUser().get("id").asText());
+                    assertFalse(response.getUser().has("password"));
+                    assertNotNull(response.getActivities());
+                    assertTrue(response.getRecommendations().isArray());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getDashboard_SlowAndFailingLegs_ReturnPartialResult() {
+        DashboardService service = createService(
+                respondingWith(HttpStatus.OK, "{\"id\":\"user-1\"}", Duration.ZERO),
+                respondingWith(HttpStatus.INTERNAL_SERVER_ERROR, "{}", Duration.ZERO),
+                respondingWith(HttpStatus.OK, "[]", Duration.ofSeconds(10)));
+        ReflectionTestUtils.setField(service, "recommendationsTimeout", Duration.ofMillis(300));
+
+        DashboardResponse response = service.getDashboard("user-1", EnumSet.allOf(DashboardSection.class)).block();
+
+        assertNotNull(response);
+        assertNotNull(response.getUser());
+        assertNull(response.getActivities());
+        assertNull(response.getRecommendations());
+        assertEquals("Upstream responded 500", response.getErrors().get("activities"));
+        assertTrue(response.getErrors().get("recommendations").startsWith("Timed out"));
+        assertEquals(1.0, meterRegistry.get("gateway.dashboard.legs")
+                .tags("section", "recommendations", "outcome", "timeout").counter().count());
+    }
+
+    @Test
+    void getDashboard_OnlyCallsSelectedSections() {
+        DashboardService service = createService(
+                respondingWith(HttpStatus.OK, "{\"id\":\"user-1\"}", Duration.ZERO),
+                activityClient(),
+                countingAiClient());
+
+        DashboardResponse response = service.getDashboard("user-1", Set.of(DashboardSection.ACTIVITIES)).block();
+
+        assertNotNull(response);
+        assertNull(response.getUser());
+        assertNotNull(response.getActivities());
+        assertNull(response.getErrors());
+        assertEquals(0, aiCalls.get());
+        assertEquals("user-1", lastActivityUserHeader);
+    }
+
+    @Test
+    void parse_UnknownField_Rejected() {
+        assertEquals(EnumSet.of(DashboardSection.USER, DashboardSection.RECOMMENDATIONS),
+                DashboardSection.parse(List.of("user", " Recommendations")));
+        assertEquals(EnumSet.allOf(DashboardSection.class), DashboardSection.parse(null));
+        assertThrows(ResponseStatusException.class, () -> DashboardSection.parse(List.of("password")));
+    }
+}
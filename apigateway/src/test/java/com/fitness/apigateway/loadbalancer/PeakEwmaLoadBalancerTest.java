@@ -0,0 +1,111 @@
+package com.fitness.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PeakEwmaLoadBalancerTest {
+
+    private final ServiceInstance first = new DefaultServiceInstance("a", "ACTIVITY-SERVICE", "10.0.0.1", 8082, false);
+    private final ServiceInstance second = new DefaultServiceInstance("b", "ACTIVITY-SERVICE", "10.0.0.2", 8082, false);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InstanceLoadTracker loadTracker;
+
+    private ServiceInstanceListSupplier supplier;
+
+    private PeakEwmaLoadBalancer loadBalancer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loadTracker = new InstanceLoadTracker(meterRegistry,
+                Duration.ofSeconds(10), Duration.ofMillis(100), Duration.ofSeconds(1));
+        supplier = mock(ServiceInstanceListSupplier.class);
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        loadBalancer = new PeakEwmaLoadBalancer(provider, loadTracker);
+    }
+
+    private Request<Object> start(ServiceInstance instance) {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        loadTracker.onStartRequest(request, new DefaultResponse(instance));
+        return request;
+    }
+
+    @Test
+    void choose_PrefersInstanceWithFewerRequestsInFlight() {
+        when(supplier.get(any())).thenReturn(Flux.just(List.of(first, second)));
+        start(first);
+        start(first);
+
+        for (int i = 0; i < 20; i++) {
+            Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+            assertNotNull(response);
+            assertEquals(second, response.getServer());
+        }
+    }
+
+    @Test
+    void choose_NoInstances_ReturnsEmptyResponse() {
+        when(supplier.get(any())).thenReturn(Flux.just(List.of()));
+
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+
+        assertNotNull(response);
+        assertFalse(response.hasServer());
+    }
+
+    @Test
+    void onComplete_ReleasesInFlightAndPenalisesServerErrors() {
+        Request<Object> request = start(first);
+        assertEquals(1.0, meterRegistry.get("loadbalancer.instance.inflight")
+                .tag("instance", "10.0.0.1:8082").gauge().value());
+
+        ResponseData serverError = new ResponseData(HttpStatus.BAD_GATEWAY, null, null, null);
+        loadTracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request,
+                new DefaultResponse(first), serverError));
+
+        assertEquals(0.0, meterRegistry.get("loadbalancer.instance.inflight")
+                .tag("instance", "10.0.0.1:8082").gauge().value());
+        double latencyMs = meterRegistry.get("loadbalancer.instance.latency")
+                .tag("instance", "10.0.0.1:8082").gauge().value();
+        assertTrue(latencyMs > 900, "server error should count as at least the failure penalty");
+        assertTrue(loadTracker.cost(first) > loadTracker.cost(second));
+    }
+
+    @Test
+    void onComplete_FastResponsesPullLatencyDownGradually() {
+        InstanceLoadTracker.InstanceLoad load = new InstanceLoadTracker.InstanceLoad(10_000, 100, 0);
+
+        load.observe(1_000, 0);
+        assertEquals(1_000, load.latency(0), 0.001);
+
+        load.observe(10, 1_000);
+        double latency = load.latency(1_000);
+        assertTrue(latency < 1_000 && latency > 800, "one fast sample must not erase a recent peak");
+    }
+}
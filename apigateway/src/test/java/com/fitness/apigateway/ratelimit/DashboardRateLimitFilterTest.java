@@ -0,0 +1,81 @@
+package com.fitness.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DashboardRateLimitFilterTest {
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    private final WebFilterChain chain = exchange -> {
+        chainCalls.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private DashboardRateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryRateLimiter rateLimiter = new InMemoryRateLimiter(mock(ConfigurationService.class),
+                new SimpleMeterRegistry(), 10, 20, 1000, Duration.ofMinutes(10));
+        rateLimitFilter = new DashboardRateLimitFilter(rateLimiter,
+                new RateLimitConfig().userKeyResolver(), 1, 2);
+    }
+
+    private MockServerWebExchange dashboardRequest(String userId) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/dashboard")
+                .header("X-User-ID", userId));
+    }
+
+    @Test
+    void filter_OverBurst_AnswersTooManyRequests() {
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange allowed = dashboardRequest("user-1");
+            rateLimitFilter.filter(allowed, chain).block();
+            assertNotNull(allowed.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        }
+        MockServerWebExchange denied = dashboardRequest("user-1");
+
+        rateLimitFilter.filter(denied, chain).block();
+
+        assertEquals(2, chainCalls.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, denied.getResponse().getStatusCode());
+        assertEquals("1", denied.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void filter_OtherUser_HasItsOwnBudget() {
+        rateLimitFilter.filter(dashboardRequest("user-1"), chain).block();
+        rateLimitFilter.filter(dashboardRequest("user-1"), chain).block();
+        MockServerWebExchange other = dashboardRequest("user-2");
+
+        rateLimitFilter.filter(other, chain).block();
+
+        assertEquals(3, chainCalls.get());
+        assertNull(other.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_OtherPath_IsNotLimitedHere() {
+        for (int i = 0; i < 5; i++) {
+            rateLimitFilter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/dashboards")
+                    .header("X-User-ID", "user-1")), chain).block();
+        }
+
+        assertEquals(5, chainCalls.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.fitness.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class InMemoryRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InMemoryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new InMemoryRateLimiter(mock(ConfigurationService.class), meterRegistry,
+                10, 20, 1000, Duration.ofMinutes(10));
+    }
+
+    private InMemoryRateLimiter.Config createConfig(int replenishRate, int burstCapacity) {
+        InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        return config;
+    }
+
+    @Test
+    void check_AllowsBurstThenDeniesWithRetryAfter() {
+        InMemoryRateLimiter.Config config = createConfig(1, 3);
+        long now = 0;
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.check("activity-track", "user-1", config, now).isAllowed());
+        }
+        RateLimiter.Response denied = rateLimiter.check("activity-track", "user-1", config, now);
+
+        assertFalse(denied.isAllowed());
+        assertEquals("1", denied.getHeaders().get(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", denied.getHeaders().get("X-RateLimit-Remaining"));
+        assertEquals(1.0, meterRegistry.counter("gateway.ratelimit.requests",
+                "route", "activity-track", "outcome", "denied").count());
+    }
+
+    @Test
+    void check_RefillsAtReplenishRate() {
+        InMemoryRateLimiter.Config config = createConfig(2, 2);
+        long now = 0;
+        rateLimiter.check("route", "user-1", config, now);
+        rateLimiter.check("route", "user-1", config, now);
+        assertFalse(rateLimiter.check("route", "user-1", config, now).isAllowed());
+
+        RateLimiter.Response afterRefill = rateLimiter.check("route", "user-1", config, now + SECOND / 2);
+
+        assertTrue(afterRefill.isAllowed());
+        assertEquals("0", afterRefill.getHeaders().get("X-RateLimit-Remaining"));
+    }
+
+    @Test
+    void check_KeysAreIndependentPerUserAndRoute() {
+        InMemoryRateLimiter.Config config = createConfig(1, 1);
+
+        assertTrue(rateLimiter.check("activity-service", "user-1", config, 0).isAllowed());
+        assertFalse(rateLimiter.check("activity-service", "user-1", config, 0).isAllowed());
+        assertTrue(rateLimiter.check("activity-service", "user-2", config, 0).isAllowed());
+        assertTrue(rateLimiter.check("ai-service", "user-1", config, 0).isAllowed());
+    }
+
+    @Test
+    void isAllowed_RouteWithoutConfig_UsesDefaults() {
+        RateLimiter.Response response = rateLimiter.isAllowed("user-service", "user-1").block();
+
+        assertTrue(response.isAllowed());
+        assertEquals("19", response.getHeaders().get("X-RateLimit-Remaining"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.fitness.apigateway.user;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserServiceTest {
+
+    private final AtomicInteger validateCalls = new AtomicInteger();
+    private final AtomicInteger registerCalls = new AtomicInteger();
+    private final AtomicBoolean userExists = new AtomicBoolean();
+
+    private AsyncCache<String, Boolean> syncedUserCache;
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        WebClient userServiceWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    String body;
+                    if (request.method() == HttpMethod.POST) {
+                        registerCalls.incrementAndGet();
+                        body = "{\"keycloakId\":\"user-123\"}";
+                    } else {
+                        validateCalls.incrementAndGet();
+                        body = String.valueOf(userExists.get());
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(body)
+                                    .build())
+                            .delayElement(Duration.ofMillis(100));
+                })
+                .build();
+        syncedUserCache = Caffeine.newBuilder().buildAsync();
+        userService = new UserService(userServiceWebClient, syncedUserCache);
+    }
+
+    private RegisterRequest createRegisterRequest() {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setKeycloakId("user-123");
+        registerRequest.setEmail("user@example.com");
+        return registerRequest;
+    }
+
+    @Test
+    void syncUser_ConcurrentFirstRequests_RegisterOnce() {
+        Mono<Void> first = userService.syncUser("user-123", this::createRegisterRequest);
+        Mono<Void> second = userService.syncUser("user-123", this::createRegisterRequest);
+
+        Mono.when(first, second).block(Duration.ofSeconds(5));
+
+        assertEquals(1, validateCalls.get());
+        assertEquals(1, registerCalls.get());
+    }
+
+    @Test
+    void syncUser_KnownUser_AnsweredLocally() {
+        userExists.set(true);
+
+        userService.syncUser("user-123", this::createRegisterRequest).block(Duration.ofSeconds(5));
+        userService.syncUser("user-123", this::createRegisterRequest).block(Duration.ofSeconds(5));
+
+        assertEquals(1, validateCalls.get());
+        assertEquals(0, registerCalls.get());
+    }
+
+    @Test
+    void syncUser_NoRegistrationDetails_IsNotCached() {
+        userService.syncUser("user-123", () -> null).block(Duration.ofSeconds(5));
+
+        assertNull(syncedUserCache.getIfPresent("user-123"));
+        assertEquals(0, registerCalls.get());
+    }
+}